@@ -0,0 +1,63 @@
+package br.com.fiap.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Simula um banco de dados remoto lento: cada comando executado aguarda
+ * {@code benchmark.banco.latencia-ms} antes de chegar ao H2, segurando a conexão do pool
+ * como faria uma consulta demorada.
+ */
+@Configuration
+class BancoLento {
+
+    private static final Set<String> EXECUCOES =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeBatch", "executeLargeUpdate");
+
+    @Bean
+    static BeanPostProcessor bancoLentoPostProcessor(Environment environment) {
+        var latencia = environment.getProperty("benchmark.banco.latencia-ms", Long.class, 0L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && latencia > 0) {
+                    // mantém Closeable e demais interfaces do HikariDataSource para o shutdown
+                    return proxy(ClassUtils.getAllInterfaces(dataSource), dataSource, latencia);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static Object proxy(Class<?>[] tipos, Object alvo, long latencia) {
+        return Proxy.newProxyInstance(BancoLento.class.getClassLoader(), tipos,
+                (proxy, metodo, argumentos) -> {
+                    if (alvo instanceof Statement && EXECUCOES.contains(metodo.getName())) {
+                        Thread.sleep(latencia);
+                    }
+                    Object resultado;
+                    try {
+                        resultado = metodo.invoke(alvo, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (resultado instanceof Connection conexao && metodo.getReturnType() == Connection.class) {
+                        return proxy(new Class<?>[]{Connection.class}, conexao, latencia);
+                    }
+                    if (resultado instanceof Statement comando && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                        return proxy(new Class<?>[]{metodo.getReturnType()}, comando, latencia);
+                    }
+                    return resultado;
+                });
+    }
+}
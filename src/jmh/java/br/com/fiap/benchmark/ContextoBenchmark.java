@@ -0,0 +1,49 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.RestApiApplication;
+import br.com.fiap.model.Mensagem;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Sobe a aplicação sem servidor web, com um banco H2 em memória exclusivo para cada
+ * execução, para que os benchmarks exercitem as mesmas configurações de produção
+ * (Flyway, batch JDBC, caches).
+ */
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        return iniciar(new SpringApplicationBuilder(RestApiApplication.class)
+                .web(WebApplicationType.NONE), propriedades);
+    }
+
+    /**
+     * As propriedades são passadas como argumentos de linha de comando, que têm precedência
+     * sobre o {@code application.yaml} e seus perfis.
+     */
+    static ConfigurableApplicationContext iniciar(SpringApplicationBuilder builder, String... propriedades) {
+        var argumentos = Stream.concat(
+                        Stream.of(
+                                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                                "logging.level.root=WARN"),
+                        Arrays.stream(propriedades))
+                .map(propriedade -> "--" + propriedade)
+                .toArray(String[]::new);
+        return builder.run(argumentos);
+    }
+
+    static Mensagem novaMensagem() {
+        return Mensagem.builder()
+                .usuario("benchmark")
+                .conteudo("conteúdo da mensagem usado nos benchmarks")
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.dto.ErrorResponse;
+import br.com.fiap.handler.GlobalExceptionHandler;
+import br.com.fiap.metrics.MensagemMetricas;
+import br.com.fiap.model.Mensagem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem da resposta de erro de validação pelo {@link GlobalExceptionHandler} para uma
+ * mensagem com usuário e conteúdo vazios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MethodArgumentNotValidException exception;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler(new MensagemMetricas(new SimpleMeterRegistry()));
+        var mensagem = new Mensagem();
+        var bindingResult = new BeanPropertyBindingResult(mensagem, "mensagem");
+        bindingResult.addError(new FieldError(
+                "mensagem", "usuario", "usuário não pode estar vazio"));
+        bindingResult.addError(new FieldError(
+                "mensagem", "conteudo", "conteúdo da mensagem não pode estar vazio"));
+        var parametro = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getMethod("alvo", Mensagem.class), 0);
+        exception = new MethodArgumentNotValidException(parametro, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException() {
+        return handler.handleMethodArgumentNotValidException(exception);
+    }
+
+    public void alvo(Mensagem mensagem) {
+        // apenas fornece o MethodParameter exigido pela exceção
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.ratelimit.LimitadorTaxaLocal;
+import br.com.fiap.ratelimit.LimiteTaxa;
+import br.com.fiap.ratelimit.LimiteTaxaFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Custo do {@link LimiteTaxaFilter} em cada requisição aceita, comparado com a mesma chamada
+ * sem o filtro, para clientes vindos de {@code ips} endereços distintos. O limite é alto o
+ * bastante para nunca recusar: o caminho medido é o de todas as requisições legítimas.
+ * <p>
+ * {@code filtrarConcorrente} mede a disputa quando várias threads atendem o mesmo conjunto de
+ * IPs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LimiteTaxaFilterBenchmark {
+
+    @Param({"1", "10000"})
+    public int ips;
+
+    private LimiteTaxaFilter filtro;
+    private String[] enderecos;
+
+    @State(Scope.Thread)
+    public static class Requisicao {
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        FilterChain chain;
+
+        @Setup
+        public void setup(Blackhole blackhole) {
+            request = new MockHttpServletRequest("GET", "/mensagens");
+            response = new MockHttpServletResponse();
+            chain = (req, resp) -> blackhole.consume(req);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        var limite = new LimiteTaxa(1_000_000_000, 1_000_000);
+        filtro = new LimiteTaxaFilter(
+                new LimitadorTaxaLocal(100_000, Duration.ofMinutes(1)),
+                limite, limite, new SimpleMeterRegistry());
+        enderecos = IntStream.range(0, ips)
+                .mapToObj(i -> "10.0." + (i >> 8) + "." + (i & 0xff))
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void semFiltro(Requisicao requisicao) throws ServletException, IOException {
+        requisicao.request.setRemoteAddr(endereco());
+        requisicao.chain.doFilter(requisicao.request, requisicao.response);
+    }
+
+    @Benchmark
+    public void filtrar(Requisicao requisicao) throws ServletException, IOException {
+        requisicao.request.setRemoteAddr(endereco());
+        filtro.doFilter(requisicao.request, requisicao.response, requisicao.chain);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void filtrarConcorrente(Requisicao requisicao) throws ServletException, IOException {
+        filtrar(requisicao);
+    }
+
+    private String endereco() {
+        return enderecos[ThreadLocalRandom.current().nextInt(enderecos.length)];
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.model.Mensagem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização e desserialização de {@link Mensagem} com o {@code ObjectMapper} configurado
+ * como o do Spring MVC, incluindo o {@code @JsonFormat} das datas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MensagemJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Mensagem mensagem;
+    private String json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var agora = LocalDateTime.now();
+        mensagem = ContextoBenchmark.novaMensagem().toBuilder()
+                .id(UUID.randomUUID())
+                .gostei(42)
+                .dataCriacao(agora)
+                .dataAlteracao(agora)
+                .build();
+        json = objectMapper.writeValueAsString(mensagem);
+    }
+
+    @Benchmark
+    public String serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(mensagem);
+    }
+
+    @Benchmark
+    public Mensagem desserializar() throws JsonProcessingException {
+        return objectMapper.readValue(json, Mensagem.class);
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.repository.MensagemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas da timeline em {@link MensagemRepository} com 10 mil, 100 mil e 1 milhão de
+ * mensagens: primeira página, página distante com OFFSET e a mesma posição por cursor.
+ * {@code obterResumos_PrimeiraPagina} é a consulta usada por {@code GET /mensagens}, com a
+ * projeção em {@link MensagemResumo}, a comparar com {@code obterMensagens_PrimeiraPagina}
+ * (rodar com {@code -prof gc} para comparar também as alocações por chamada).
+ * <p>
+ * A timeline por usuário é medida para um dos 100 usuários da carga, na primeira página e no
+ * meio das suas mensagens: com o índice (usuario, data_criacao, id) o tempo deve se manter
+ * estável entre os três tamanhos de tabela.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MensagemRepositoryBenchmark {
+
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int LOTE_CARGA = 10_000;
+    private static final int USUARIOS = 100;
+    private static final String USUARIO = "usuario42";
+
+    @Param({"10000", "100000", "1000000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private MensagemRepository mensagemRepository;
+    private int paginaDistante;
+    private Mensagem ultimaAntesDaPaginaDistante;
+    private Mensagem meioDoUsuario;
+
+    @Setup
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar();
+        mensagemRepository = contexto.getBean(MensagemRepository.class);
+        carregar(contexto.getBean(JdbcTemplate.class));
+
+        paginaDistante = linhas / TAMANHO_PAGINA / 2;
+        var anterior = mensagemRepository.obterMensagens(
+                PageRequest.of(paginaDistante * TAMANHO_PAGINA - 1, 1));
+        ultimaAntesDaPaginaDistante = anterior.getContent().get(0);
+        meioDoUsuario = mensagemRepository.obterMensagensDoUsuario(
+                USUARIO, PageRequest.of(linhas / USUARIOS / 2, 1)).get(0);
+    }
+
+    @TearDown
+    public void teardown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<Mensagem> obterMensagens_PrimeiraPagina() {
+        return mensagemRepository.obterMensagens(PageRequest.of(0, TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public Page<MensagemResumo> obterResumos_PrimeiraPagina() {
+        return mensagemRepository.obterResumos(PageRequest.of(0, TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public Page<Mensagem> obterMensagens_PaginaDistante() {
+        return mensagemRepository.obterMensagens(PageRequest.of(paginaDistante, TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public List<Mensagem> obterMensagensApos_PaginaDistante() {
+        return mensagemRepository.obterMensagensApos(
+                ultimaAntesDaPaginaDistante.getDataCriacao(),
+                ultimaAntesDaPaginaDistante.getId(),
+                PageRequest.ofSize(TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public List<Mensagem> obterMensagensDoUsuario_PrimeiraPagina() {
+        return mensagemRepository.obterMensagensDoUsuario(USUARIO, PageRequest.ofSize(TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public List<Mensagem> obterMensagensDoUsuarioApos_MeioDasMensagens() {
+        return mensagemRepository.obterMensagensDoUsuarioApos(
+                USUARIO,
+                meioDoUsuario.getDataCriacao(),
+                meioDoUsuario.getId(),
+                PageRequest.ofSize(TAMANHO_PAGINA));
+    }
+
+    private void carregar(JdbcTemplate jdbcTemplate) {
+        var inicio = LocalDateTime.now().minusSeconds(linhas);
+        for (int lote = 0; lote < linhas; lote += LOTE_CARGA) {
+            var parametros = new ArrayList<Object[]>(LOTE_CARGA);
+            for (int i = lote; i < Math.min(lote + LOTE_CARGA, linhas); i++) {
+                var data = Timestamp.valueOf(inicio.plusSeconds(i));
+                parametros.add(new Object[]{UUID.randomUUID(), "usuario" + (i % USUARIOS), "conteúdo " + i, data, data});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO mensagem "
+                    + "(id, usuario, conteudo, data_criacao, data_alteracao) VALUES (?, ?, ?, ?, ?)", parametros);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Operações de {@link br.com.fiap.service.MensagemServiceImp} contra o H2 em memória.
+ * {@code cache=false} desliga o cache de leituras para medir o acesso ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MensagemServiceBenchmark {
+
+    private static final int LOTE = 100;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private MensagemService mensagemService;
+    private List<UUID> ids;
+
+    @Setup
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar(
+                "mensagens.cache.tamanho-maximo=" + (cache ? 10_000 : 0),
+                "mensagens.timeline.cache.enabled=" + cache);
+        mensagemService = contexto.getBean(MensagemService.class);
+        ids = IntStream.range(0, 1_000)
+                .mapToObj(i -> mensagemService.registrarMensagem(ContextoBenchmark.novaMensagem()).getId())
+                .toList();
+    }
+
+    @TearDown
+    public void teardown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Mensagem registrarMensagem() {
+        return mensagemService.registrarMensagem(ContextoBenchmark.novaMensagem());
+    }
+
+    /**
+     * Custo por mensagem ao registrar {@value #LOTE} mensagens uma a uma.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void registrarMensagens_UmaAUma(Blackhole blackhole) {
+        for (int i = 0; i < LOTE; i++) {
+            blackhole.consume(mensagemService.registrarMensagem(ContextoBenchmark.novaMensagem()));
+        }
+    }
+
+    /**
+     * Custo por mensagem ao registrar {@value #LOTE} mensagens em uma única chamada.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public List<Mensagem> registrarMensagens_EmLote() {
+        var mensagens = IntStream.range(0, LOTE)
+                .mapToObj(i -> ContextoBenchmark.novaMensagem())
+                .toList();
+        return mensagemService.registrarMensagens(mensagens);
+    }
+
+    @Benchmark
+    public Mensagem obterMensagem() {
+        return mensagemService.obterMensagem(sortearId());
+    }
+
+    @Benchmark
+    public Mensagem atualizarMensagem() {
+        var id = sortearId();
+        var mensagem = Mensagem.builder()
+                .id(id)
+                .conteudo("conteúdo alterado " + System.nanoTime())
+                .build();
+        return mensagemService.atualizarMensagem(id, mensagem);
+    }
+
+    private UUID sortearId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
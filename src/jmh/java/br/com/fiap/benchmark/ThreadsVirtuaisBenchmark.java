@@ -0,0 +1,92 @@
+package br.com.fiap.benchmark;
+
+import br.com.fiap.RestApiApplication;
+import br.com.fiap.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Vazão de {@code GET /mensagens/{id}} com um banco lento ({@link BancoLento}), atendendo as
+ * requisições em threads de plataforma ou virtuais. O cache de leitura é desligado para que
+ * toda requisição chegue ao banco, e os clientes superam o pool do Tomcat, que limita o modo
+ * {@code plataforma}.
+ * <p>
+ * O modo {@code virtual} exige Java 21: {@code mvn verify -Pbenchmark
+ * -Djmh.includes=ThreadsVirtuais} executado com um JDK 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(200)
+public class ThreadsVirtuaisBenchmark {
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    @Param({"20"})
+    public int latenciaBancoMs;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient client;
+    private List<URI> uris;
+
+    @Setup
+    public void setup() {
+        var builder = new SpringApplicationBuilder(RestApiApplication.class, BancoLento.class)
+                .profiles("virtual".equals(modo) ? "virtual-threads" : "default");
+        contexto = ContextoBenchmark.iniciar(builder,
+                "server.port=0",
+                // mesmo pool de conexões nos dois modos: só muda quem limita a concorrência
+                "spring.datasource.hikari.maximum-pool-size=50",
+                // mede a vazão, não a rejeição por timeout do perfil virtual-threads
+                "spring.datasource.hikari.connection-timeout=30000",
+                "server.tomcat.threads.max=20",
+                "mensagens.cache.tamanho-maximo=0",
+                // todos os clientes saem do mesmo IP
+                "mensagens.limite.enabled=false",
+                "benchmark.banco.latencia-ms=" + latenciaBancoMs);
+        var mensagemService = contexto.getBean(MensagemService.class);
+        var port = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        uris = IntStream.range(0, 100)
+                .mapToObj(i -> mensagemService.registrarMensagem(ContextoBenchmark.novaMensagem()).getId())
+                .map(id -> URI.create("http://localhost:" + port + "/mensagens/" + id))
+                .toList();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void teardown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int obterMensagem() throws IOException, InterruptedException {
+        var uri = uris.get(ThreadLocalRandom.current().nextInt(uris.size()));
+        var resposta = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("status inesperado: " + resposta.statusCode());
+        }
+        return resposta.statusCode();
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.fiap.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Acesso R2DBC da variante reativa da API (perfil {@code reactive}).
+ * <p>
+ * O pool de conexões não é exposto como bean: a autoconfiguração do Spring Boot deixa de
+ * criar o {@code DataSource} JDBC quando existe um {@code ConnectionFactory} no contexto, e o
+ * JDBC continua necessário para o Flyway e para o JPA. Pelo mesmo motivo a autoconfiguração
+ * do R2DBC é desabilitada no {@code application.yaml}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReativoConfig implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+
+    public ReativoConfig(
+            @Value("${spring.r2dbc.url}") String url,
+            @Value("${spring.r2dbc.username:sa}") String username,
+            @Value("${spring.r2dbc.password:}") String password,
+            @Value("${spring.r2dbc.pool.max-size:10}") int tamanhoMaximo) {
+        var options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                        .maxSize(tamanhoMaximo)
+                        .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
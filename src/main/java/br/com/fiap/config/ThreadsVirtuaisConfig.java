@@ -0,0 +1,47 @@
+package br.com.fiap.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Atende as requisições do Tomcat em threads virtuais (Java 21+), de modo que as chamadas
+ * JDBC bloqueantes não fiquem limitadas ao pool de threads de plataforma do servlet. O
+ * limite de concorrência passa a ser o pool de conexões do Hikari, dimensionado no perfil
+ * {@code virtual-threads} do {@code application.yaml}.
+ * <p>
+ * O projeto continua compilando para Java 17: o executor é obtido por reflexão e a
+ * aplicação não sobe se o modo estiver habilitado em uma JVM sem threads virtuais.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "mensagens.virtual-threads.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService executorThreadsVirtuais() {
+        try {
+            var executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("requisições atendidas em threads virtuais");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("threads virtuais exigem Java 21 ou superior (atual: "
+                    + Runtime.version() + ")", e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("não foi possível criar o executor de threads virtuais", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcat(ExecutorService executorThreadsVirtuais) {
+        return protocolHandler -> protocolHandler.setExecutor(executorThreadsVirtuais);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.exception.VersaoConflitanteException;
+import br.com.fiap.model.Mensagem;
+import org.springframework.data.domain.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * ETags fortes das representações de mensagens, usadas em {@code ResponseEntity.eTag}: o
+ * Spring compara o {@code If-None-Match} e responde 304 sem serializar o corpo.
+ * <p>
+ * A mensagem é identificada por ID, {@code versao} (incrementada a cada edição) e contador
+ * de "gostei", que é incrementado sem alterar a versão. Páginas usam um resumo SHA-256 das
+ * ETags das mensagens e dos dados de paginação.
+ */
+final class EtagMensagens {
+
+    private EtagMensagens() {
+    }
+
+    static String mensagem(Mensagem mensagem) {
+        return "\"" + versao(mensagem) + "\"";
+    }
+
+    /**
+     * Versão exigida pelo {@code If-Match} de uma edição, ou {@code null} sem o cabeçalho ou
+     * com {@code *}. Apenas o ID e a versão são comparados: um "gostei" recebido depois da
+     * leitura muda a ETag, mas não conflita com a edição do conteúdo.
+     *
+     * @throws VersaoConflitanteException se a ETag não é de uma versão desta mensagem
+     */
+    static Long versaoEsperada(UUID id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var etag = ifMatch.trim();
+        var prefixo = "\"" + id + "-";
+        if (!etag.startsWith(prefixo) || !etag.endsWith("\"")) {
+            throw new VersaoConflitanteException("If-Match não corresponde à mensagem");
+        }
+        var separador = etag.indexOf('-', prefixo.length());
+        try {
+            return Long.parseLong(etag.substring(prefixo.length(), separador < 0 ? etag.length() - 1 : separador));
+        } catch (NumberFormatException e) {
+            throw new VersaoConflitanteException("If-Match não corresponde à mensagem");
+        }
+    }
+
+    static String pagina(Page<MensagemResumo> pagina) {
+        return resumo(pagina.getContent(), EtagMensagens::versao,
+                pagina.getNumber() + ":" + pagina.getSize() + ":" + pagina.getTotalElements());
+    }
+
+    static String pagina(CursorPage<Mensagem> pagina) {
+        return resumo(pagina.getContent(), EtagMensagens::versao, String.valueOf(pagina.getNext()));
+    }
+
+    private static <T> String resumo(List<T> mensagens, Function<T, String> versao, String paginacao) {
+        var digest = sha256();
+        digest.update(paginacao.getBytes(StandardCharsets.UTF_8));
+        for (T mensagem : mensagens) {
+            digest.update((byte) ';');
+            digest.update(versao.apply(mensagem).getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static String versao(Mensagem mensagem) {
+        return mensagem.getId() + "-" + mensagem.getVersao() + "-" + mensagem.getGostei();
+    }
+
+    private static String versao(MensagemResumo mensagem) {
+        return mensagem.getId() + "-" + mensagem.getVersao() + "-" + mensagem.getGostei();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
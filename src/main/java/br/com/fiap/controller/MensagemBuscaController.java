@@ -0,0 +1,47 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.IndiceMensagens;
+import br.com.fiap.service.MensagemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Busca textual em {@code conteudo} e {@code usuario}, ordenada por relevância e recência (ver
+ * {@link IndiceMensagens}). O índice fornece apenas os IDs; as mensagens são lidas do
+ * repositório, com os valores atuais.
+ */
+@RestController
+@RequestMapping("/mensagens/search")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MensagemBuscaController {
+
+    static final int TAMANHO_MAXIMO = 100;
+
+    private final IndiceMensagens indiceMensagens;
+    private final MensagemService mensagemService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> buscarMensagens(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("consulta vazia");
+        }
+        if (size < 1 || size > TAMANHO_MAXIMO) {
+            return ResponseEntity.badRequest().body("tamanho de página inválido");
+        }
+        List<Mensagem> mensagens = mensagemService.obterMensagens(indiceMensagens.buscar(q, size));
+        return new ResponseEntity<>(mensagens, HttpStatus.OK);
+    }
+}
@@ -1,13 +1,23 @@
 package br.com.fiap.controller;
 
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.dto.PaginaResponse;
+import br.com.fiap.dto.GosteiRequest;
+import br.com.fiap.dto.RemocaoResponse;
+import br.com.fiap.exception.GosteiDuplicadoException;
 import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.exception.VersaoConflitanteException;
+import br.com.fiap.metrics.MensagemMetricas;
 import br.com.fiap.model.Mensagem;
 import br.com.fiap.service.MensagemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,18 +27,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/mensagens")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class MensagemController {
 
+    static final int REMOCAO_MAXIMA = 1000;
+
     private final MensagemService mensagemService;
+    private final MensagemMetricas mensagemMetricas;
 
     @PostMapping(
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -47,10 +65,13 @@ public class MensagemController {
         try {
             var uid = UUID.fromString(id);
             var mensagemEncontrada = mensagemService.obterMensagem(uid);
-            return new ResponseEntity<>(mensagemEncontrada, HttpStatus.OK);
+            return ResponseEntity.ok()
+                    .eTag(EtagMensagens.mensagem(mensagemEncontrada))
+                    .body(mensagemEncontrada);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("ID Inválido");
         } catch (MensagemNotFoundException e) {
+            mensagemMetricas.mensagemNaoEncontrada();
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
@@ -61,15 +82,22 @@ public class MensagemController {
             produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> atualizarMensagem(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid Mensagem mensagem) {
         try {
             var uuid = UUID.fromString(id);
-            var mensagemAtualizada = mensagemService.atualizarMensagem(uuid, mensagem);
-            return new ResponseEntity<>(mensagemAtualizada, HttpStatus.OK);
+            var versao = EtagMensagens.versaoEsperada(uuid, ifMatch);
+            var mensagemAtualizada = mensagemService.atualizarMensagem(uuid, mensagem, versao);
+            return ResponseEntity.ok()
+                    .eTag(EtagMensagens.mensagem(mensagemAtualizada))
+                    .body(mensagemAtualizada);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("ID inválido");
         } catch (MensagemNotFoundException e) {
+            mensagemMetricas.mensagemNaoEncontrada();
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (VersaoConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         }
     }
 
@@ -83,18 +111,97 @@ public class MensagemController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("ID inválido");
         } catch (MensagemNotFoundException e) {
+            mensagemMetricas.mensagemNaoEncontrada();
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
+    /**
+     * Remoção em lote para moderação: {@code DELETE /mensagens?ids=a,b,c}. Os IDs inexistentes
+     * não impedem a remoção dos demais e são listados na resposta.
+     */
+    @DeleteMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> removerMensagens(@RequestParam List<String> ids) {
+        if (ids.isEmpty() || ids.size() > REMOCAO_MAXIMA) {
+            return ResponseEntity.badRequest().body("quantidade de IDs inválida");
+        }
+        var uuids = new LinkedHashSet<UUID>();
+        try {
+            ids.forEach(id -> uuids.add(UUID.fromString(id.trim())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("ID inválido");
+        }
+        var removidas = new HashSet<>(mensagemService.removerMensagens(uuids));
+        var naoEncontradas = uuids.stream().filter(id -> !removidas.contains(id)).toList();
+        return new ResponseEntity<>(new RemocaoResponse(removidas.size(), naoEncontradas), HttpStatus.OK);
+    }
+
+    @PostMapping(
+            value = "/{id}/gostei",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> gostarMensagem(
+            @PathVariable String id,
+            @RequestBody @Valid GosteiRequest gostei) {
+        try {
+            var uuid = UUID.fromString(id);
+            var mensagem = mensagemService.gostarMensagem(uuid, gostei.getUsuario());
+            return new ResponseEntity<>(mensagem, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("ID inválido");
+        } catch (MensagemNotFoundException e) {
+            mensagemMetricas.mensagemNaoEncontrada();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (GosteiDuplicadoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
     @GetMapping(
             value = "",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<Mensagem>> obterMensagens(
+    public ResponseEntity<PaginaResponse<MensagemResumo>> obterMensagens(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Mensagem> mensagens = mensagemService.obterMensagens(pageable);
-        return new ResponseEntity<>(mensagens, HttpStatus.OK);
+        Page<MensagemResumo> mensagens = mensagemService.obterMensagens(pageable);
+        return ResponseEntity.ok()
+                .eTag(EtagMensagens.pagina(mensagens))
+                .body(PaginaResponse.de(mensagens));
+    }
+
+    @GetMapping(
+            value = "",
+            params = {"cursor", "!usuario"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> obterMensagensPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            CursorPage<Mensagem> mensagens = mensagemService.obterMensagens(cursor, size);
+            return ResponseEntity.ok()
+                    .eTag(EtagMensagens.pagina(mensagens))
+                    .body(mensagens);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(
+            value = "",
+            params = "usuario",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> obterMensagensDoUsuario(
+            @RequestParam String usuario,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            CursorPage<Mensagem> mensagens = mensagemService.obterMensagensDoUsuario(usuario, cursor, size);
+            return ResponseEntity.ok()
+                    .eTag(EtagMensagens.pagina(mensagens))
+                    .body(mensagens);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
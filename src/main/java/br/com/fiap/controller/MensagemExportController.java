@@ -0,0 +1,129 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Exportação de todas as mensagens em NDJSON (padrão) ou CSV. O corpo é escrito à medida que
+ * as linhas são lidas do banco de dados, sem paginação nem {@code COUNT(*)}: a memória usada
+ * não depende do tamanho da tabela.
+ */
+@RestController
+@RequestMapping("/mensagens/export")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MensagemExportController {
+
+    private static final String CABECALHO_CSV = "id,usuario,conteudo,gostei,dataCriacao,dataAlteracao\r\n";
+
+    private final MensagemService mensagemService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportarMensagens(
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        return switch (formato) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(MensagemLoteController.APPLICATION_NDJSON_VALUE))
+                    .body(this::escreverNdjson);
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"mensagens.csv\"")
+                    .body(this::escreverCsv);
+            // o corpo precisa ser um StreamingResponseBody também no erro
+            default -> ResponseEntity.badRequest()
+                    .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                    .body(saida -> saida.write("formato inválido".getBytes(StandardCharsets.UTF_8)));
+        };
+    }
+
+    private void escreverNdjson(OutputStream saida) throws IOException {
+        // sem flush a cada mensagem: o Jackson e o Tomcat enviam em blocos
+        var writer = objectMapper.writerFor(Mensagem.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (var gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+            exportar(mensagem -> {
+                writer.writeValue(gerador, mensagem);
+                gerador.writeRaw('\n');
+            });
+        }
+    }
+
+    private void escreverCsv(OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escritor.write(CABECALHO_CSV);
+        exportar(mensagem -> {
+            escritor.write(mensagem.getId().toString());
+            escritor.write(',');
+            escritor.write(campoCsv(mensagem.getUsuario()));
+            escritor.write(',');
+            escritor.write(campoCsv(mensagem.getConteudo()));
+            escritor.write(',');
+            escritor.write(Integer.toString(mensagem.getGostei()));
+            escritor.write(',');
+            escritor.write(String.valueOf(mensagem.getDataCriacao()));
+            escritor.write(',');
+            escritor.write(String.valueOf(mensagem.getDataAlteracao()));
+            escritor.write("\r\n");
+        });
+        escritor.flush();
+    }
+
+    private interface Escrita {
+        void escrever(Mensagem mensagem) throws IOException;
+    }
+
+    private void exportar(Escrita escrita) throws IOException {
+        Consumer<Mensagem> destino = mensagem -> {
+            try {
+                escrita.escrever(mensagem);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            mensagemService.exportarMensagens(destino);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Campo CSV conforme a RFC 4180: entre aspas quando contém separador, aspas ou quebra de
+     * linha, com as aspas duplicadas.
+     */
+    static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0
+                && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
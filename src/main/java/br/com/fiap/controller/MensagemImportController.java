@@ -0,0 +1,54 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.ImportacaoResponse;
+import br.com.fiap.service.ImportadorMensagens;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Importação de mensagens em volume, para carga inicial e migrações. O corpo é lido como
+ * stream, sem ser carregado inteiro em memória; a resposta traz a vazão e as linhas
+ * rejeitadas. Para lotes pequenos com o resultado de cada item, ver
+ * {@link MensagemLoteController}.
+ */
+@RestController
+@RequestMapping("/mensagens/import")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MensagemImportController {
+
+    private final ImportadorMensagens importadorMensagens;
+
+    @PostMapping(
+            consumes = MensagemLoteController.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importarNdjson(InputStream corpo) throws IOException {
+        return importar(corpo, ImportadorMensagens.Formato.NDJSON);
+    }
+
+    @PostMapping(
+            consumes = "text/csv",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importarCsv(InputStream corpo) throws IOException {
+        return importar(corpo, ImportadorMensagens.Formato.CSV);
+    }
+
+    private ResponseEntity<?> importar(InputStream corpo, ImportadorMensagens.Formato formato)
+            throws IOException {
+        try {
+            ImportacaoResponse resultado = importadorMensagens.importar(corpo, formato);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.ItemLoteResponse;
+import br.com.fiap.dto.LoteResponse;
+import br.com.fiap.metrics.MensagemMetricas;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Registro de mensagens em lote. Cada item é validado individualmente; os itens válidos são
+ * gravados em uma única transação, com inserts agrupados em batch JDBC, e a resposta traz o
+ * resultado de cada item na ordem em que foi enviado.
+ */
+@RestController
+@RequestMapping("/mensagens/batch")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MensagemLoteController {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final MensagemService mensagemService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MensagemMetricas mensagemMetricas;
+    private final int tamanhoMaximo;
+
+    public MensagemLoteController(
+            MensagemService mensagemService,
+            Validator validator,
+            ObjectMapper objectMapper,
+            MensagemMetricas mensagemMetricas,
+            @Value("${mensagens.lote.tamanho-maximo:1000}") int tamanhoMaximo) {
+        this.mensagemService = mensagemService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.mensagemMetricas = mensagemMetricas;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    private record Item(Mensagem mensagem, List<String> errors) {
+
+        /**
+         * Um {@code null} no lote é JSON válido, mas não é uma mensagem: é rejeitado antes da
+         * validação.
+         */
+        static Item de(Mensagem mensagem) {
+            return mensagem == null
+                    ? new Item(null, List.of("JSON inválido"))
+                    : new Item(mensagem, null);
+        }
+    }
+
+    @PostMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> registrarMensagens(@RequestBody List<Mensagem> mensagens) {
+        var itens = new ArrayList<Item>(mensagens.size());
+        mensagens.forEach(mensagem -> itens.add(Item.de(mensagem)));
+        return registrar(itens);
+    }
+
+    @PostMapping(
+            consumes = APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> registrarMensagensNdjson(@RequestBody String corpo) {
+        var itens = new ArrayList<Item>();
+        for (String linha : corpo.split("\\R")) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                itens.add(Item.de(objectMapper.readValue(linha, Mensagem.class)));
+            } catch (JsonProcessingException e) {
+                itens.add(new Item(null, List.of("JSON inválido")));
+            }
+        }
+        return registrar(itens);
+    }
+
+    private ResponseEntity<?> registrar(List<Item> itens) {
+        if (itens.isEmpty()) {
+            return ResponseEntity.badRequest().body("lote vazio");
+        }
+        if (itens.size() > tamanhoMaximo) {
+            return ResponseEntity.badRequest()
+                    .body("lote excede o limite de " + tamanhoMaximo + " mensagens");
+        }
+
+        var validos = new ArrayList<Mensagem>();
+        var validados = new ArrayList<Item>(itens.size());
+        for (Item item : itens) {
+            if (item.errors() != null) {
+                validados.add(item);
+                continue;
+            }
+            var errors = validator.validate(item.mensagem()).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            if (errors.isEmpty()) {
+                validos.add(item.mensagem());
+                validados.add(item);
+            } else {
+                validados.add(new Item(null, errors));
+            }
+        }
+
+        Iterator<Mensagem> registradas = validos.isEmpty()
+                ? List.<Mensagem>of().iterator()
+                : mensagemService.registrarMensagens(validos).iterator();
+        var resultado = new ArrayList<ItemLoteResponse>(validados.size());
+        for (int indice = 0; indice < validados.size(); indice++) {
+            var item = validados.get(indice);
+            if (item.errors() == null) {
+                resultado.add(new ItemLoteResponse(
+                        indice, HttpStatus.CREATED.value(), registradas.next().getId(), null));
+            } else {
+                resultado.add(new ItemLoteResponse(
+                        indice, HttpStatus.BAD_REQUEST.value(), null, item.errors()));
+            }
+        }
+        var rejeitadas = validados.size() - validos.size();
+        mensagemMetricas.falhasValidacaoLote(rejeitadas);
+        return new ResponseEntity<>(
+                new LoteResponse(validos.size(), rejeitadas, resultado), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.GosteiRequest;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.dto.PaginaResponse;
+import br.com.fiap.exception.GosteiDuplicadoException;
+import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.metrics.MensagemMetricas;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemServiceReativo;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Variante reativa de {@link MensagemController}, ativa quando a aplicação sobe como WebFlux
+ * (perfil {@code reactive}). Expõe as mesmas rotas, com os mesmos status e mensagens de erro.
+ */
+@RestController
+@RequestMapping("/mensagens")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MensagemReativoController {
+
+    private final MensagemServiceReativo mensagemService;
+    private final MensagemMetricas mensagemMetricas;
+
+    @PostMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<Mensagem>> registrarMensagem(@Valid @RequestBody Mensagem mensagem) {
+        return mensagemService.registrarMensagem(mensagem)
+                .map(mensagemRegistrada -> new ResponseEntity<>(mensagemRegistrada, HttpStatus.CREATED));
+    }
+
+    @GetMapping(
+            value = "/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<Object>> buscarMensagem(@PathVariable String id) {
+        return comId(id, "ID Inválido", uuid -> mensagemService.obterMensagem(uuid));
+    }
+
+    @PutMapping(
+            value = "/{id}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> atualizarMensagem(
+            @PathVariable String id,
+            @RequestBody @Valid Mensagem mensagem) {
+        return comId(id, "ID inválido", uuid -> mensagemService.atualizarMensagem(uuid, mensagem));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Object>> removerMensagem(@PathVariable String id) {
+        return comId(id, "ID inválido", uuid -> mensagemService.removerMensagem(uuid)
+                .thenReturn("mensagem removida"));
+    }
+
+    @PostMapping(
+            value = "/{id}/gostei",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> gostarMensagem(
+            @PathVariable String id,
+            @RequestBody @Valid GosteiRequest gostei) {
+        return comId(id, "ID inválido", uuid -> mensagemService.gostarMensagem(uuid, gostei.getUsuario()));
+    }
+
+    @GetMapping(
+            value = "",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PaginaResponse<MensagemResumo>>> obterMensagens(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return mensagemService.obterMensagens(PageRequest.of(page, size))
+                .map(mensagens -> ResponseEntity.ok()
+                        .eTag(EtagMensagens.pagina(mensagens))
+                        .body(PaginaResponse.de(mensagens)));
+    }
+
+    @GetMapping(
+            value = "",
+            params = {"cursor", "!usuario"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> obterMensagensPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return paginaPorCursor(mensagemService.obterMensagens(cursor, size));
+    }
+
+    @GetMapping(
+            value = "",
+            params = "usuario",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> obterMensagensDoUsuario(
+            @RequestParam String usuario,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return paginaPorCursor(mensagemService.obterMensagensDoUsuario(usuario, cursor, size));
+    }
+
+    private static Mono<ResponseEntity<Object>> paginaPorCursor(Mono<CursorPage<Mensagem>> pagina) {
+        return pagina
+                .<ResponseEntity<Object>>map(mensagens -> ResponseEntity.ok()
+                        .eTag(EtagMensagens.pagina(mensagens))
+                        .body(mensagens))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    /**
+     * Converte o ID do caminho e traduz as exceções do serviço nas respostas da API bloqueante.
+     */
+    private Mono<ResponseEntity<Object>> comId(
+            String id, String mensagemIdInvalido, Function<UUID, Mono<?>> operacao) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(mensagemIdInvalido));
+        }
+        return operacao.apply(uuid)
+                .<ResponseEntity<Object>>map(resultado -> new ResponseEntity<>(resultado, HttpStatus.OK))
+                .onErrorResume(MensagemNotFoundException.class, e -> {
+                    mensagemMetricas.mensagemNaoEncontrada();
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()));
+                })
+                .onErrorResume(GosteiDuplicadoException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())));
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.service.TimelineStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Timeline em tempo real: os eventos {@code criada}, {@code atualizada}, {@code removida} e
+ * {@code gostei} são enviados como Server-Sent Events, com a mensagem em JSON (ou apenas o
+ * {@code id}, na remoção). A conexão é assíncrona e não ocupa uma thread do servidor enquanto
+ * aguarda eventos.
+ */
+@RestController
+@RequestMapping("/mensagens/stream")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MensagemStreamController {
+
+    private final TimelineStream timelineStream;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharMensagens() {
+        // o corpo só pode ser o SseEmitter: sem conexões disponíveis a resposta vai sem corpo
+        return timelineStream.assinar()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de resultados navegada por cursor (keyset pagination).
+ * <p>
+ * {@code next} é um token opaco que deve ser repassado como {@code cursor} na próxima
+ * requisição; é {@code null} quando não existem mais registros.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String next;
+
+}
@@ -0,0 +1,17 @@
+package br.com.fiap.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Linha rejeitada na importação, numerada a partir de 1 como no arquivo enviado.
+ */
+@Data
+@AllArgsConstructor
+public class ErroImportacao {
+    private long linha;
+    private List<String> errors;
+
+}
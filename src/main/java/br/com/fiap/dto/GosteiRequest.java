@@ -0,0 +1,16 @@
+package br.com.fiap.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GosteiRequest {
+
+    @NotEmpty(message = "usuário não pode estar vazio")
+    private String usuario;
+
+}
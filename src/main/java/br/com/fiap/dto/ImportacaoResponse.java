@@ -0,0 +1,22 @@
+package br.com.fiap.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação. {@code erros} traz no máximo
+ * {@code mensagens.importacao.maximo-erros} linhas rejeitadas, em ordem; {@code rejeitadas}
+ * conta todas.
+ */
+@Data
+@AllArgsConstructor
+public class ImportacaoResponse {
+    private long importadas;
+    private long rejeitadas;
+    private long duracaoMillis;
+    private long mensagensPorSegundo;
+    private List<ErroImportacao> erros;
+
+}
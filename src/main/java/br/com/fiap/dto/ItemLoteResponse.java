@@ -0,0 +1,22 @@
+package br.com.fiap.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado do registro de um item do lote, na mesma posição em que foi enviado.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemLoteResponse {
+    private int indice;
+    private int status;
+    private UUID id;
+    private List<String> errors;
+
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LoteResponse {
+    private int registradas;
+    private int rejeitadas;
+    private List<ItemLoteResponse> itens;
+
+}
@@ -0,0 +1,34 @@
+package br.com.fiap.dto;
+
+import br.com.fiap.model.Mensagem;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mensagem como exibida na listagem paginada de {@code GET /mensagens}, montada diretamente
+ * pela consulta: não é uma entidade, então não entra no contexto de persistência nem passa
+ * pelo dirty checking. A {@code versao} não é exibida, mas compõe a ETag da página.
+ */
+@Data
+@AllArgsConstructor
+public class MensagemResumo {
+    private UUID id;
+    private String usuario;
+    private String conteudo;
+    private int gostei;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS")
+    private LocalDateTime dataCriacao;
+    @JsonIgnore
+    private Long versao;
+
+    public static MensagemResumo de(Mensagem mensagem) {
+        return new MensagemResumo(mensagem.getId(), mensagem.getUsuario(), mensagem.getConteudo(),
+                mensagem.getGostei(), mensagem.getDataCriacao(), mensagem.getVersao());
+    }
+
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Página de resultados navegada por número ({@code page} e {@code size}). Mantém apenas os
+ * campos de {@link Page} usados pelos clientes, com os mesmos nomes, sem {@code pageable},
+ * {@code sort} e os demais campos derivados.
+ */
+@Data
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public static <T> PaginaResponse<T> de(Page<T> pagina) {
+        return new PaginaResponse<>(pagina.getContent(), pagina.getNumber(), pagina.getSize(),
+                pagina.getTotalElements(), pagina.getTotalPages());
+    }
+
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class RemocaoResponse {
+    private int removidas;
+    private List<UUID> naoEncontradas;
+
+}
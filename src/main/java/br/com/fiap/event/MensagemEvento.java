@@ -0,0 +1,37 @@
+package br.com.fiap.event;
+
+import br.com.fiap.model.Mensagem;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado pelo serviço de mensagens a cada alteração. Os ouvintes que dependem do
+ * estado gravado devem usar {@code @TransactionalEventListener}, que só executa após o commit.
+ * <p>
+ * {@code mensagem} é {@code null} nos eventos de remoção.
+ */
+public record MensagemEvento(Tipo tipo, UUID id, Mensagem mensagem) {
+
+    public enum Tipo {
+        CRIADA,
+        ATUALIZADA,
+        REMOVIDA,
+        GOSTEI
+    }
+
+    public static MensagemEvento criada(Mensagem mensagem) {
+        return new MensagemEvento(Tipo.CRIADA, mensagem.getId(), mensagem);
+    }
+
+    public static MensagemEvento atualizada(Mensagem mensagem) {
+        return new MensagemEvento(Tipo.ATUALIZADA, mensagem.getId(), mensagem);
+    }
+
+    public static MensagemEvento removida(UUID id) {
+        return new MensagemEvento(Tipo.REMOVIDA, id, null);
+    }
+
+    public static MensagemEvento gostei(Mensagem mensagem) {
+        return new MensagemEvento(Tipo.GOSTEI, mensagem.getId(), mensagem);
+    }
+}
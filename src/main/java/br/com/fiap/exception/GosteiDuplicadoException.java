@@ -0,0 +1,7 @@
+package br.com.fiap.exception;
+
+public class GosteiDuplicadoException extends RuntimeException {
+    public GosteiDuplicadoException(String mensagem) {
+        super(mensagem);
+    }
+}
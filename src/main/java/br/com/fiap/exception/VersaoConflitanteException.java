@@ -0,0 +1,7 @@
+package br.com.fiap.exception;
+
+public class VersaoConflitanteException extends RuntimeException {
+    public VersaoConflitanteException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -1,6 +1,8 @@
 package br.com.fiap.handler;
 
 import br.com.fiap.dto.ErrorResponse;
+import br.com.fiap.metrics.MensagemMetricas;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +10,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,13 +18,30 @@ import java.util.List;
 
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MensagemMetricas mensagemMetricas;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(
             MethodArgumentNotValidException ex) {
+        return validationError(ex.getBindingResult().getFieldErrors());
+    }
+
+    /**
+     * Equivalente de {@link MethodArgumentNotValidException} na variante reativa (WebFlux).
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBindException(
+            WebExchangeBindException ex) {
+        return validationError(ex.getFieldErrors());
+    }
+
+    private ResponseEntity<ErrorResponse> validationError(List<FieldError> fieldErrors) {
+        mensagemMetricas.falhaValidacao();
         List<String> errors = new ArrayList<>();
-        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+        for (FieldError error : fieldErrors) {
             errors.add(error.getDefaultMessage());
         }
         Collections.sort(errors);
@@ -0,0 +1,47 @@
+package br.com.fiap.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de requisições rejeitadas, publicados em {@code /actuator/prometheus} como
+ * {@code mensagens_nao_encontradas_total} e {@code mensagens_validacao_falhas_total}.
+ */
+@Component
+public class MensagemMetricas {
+
+    public static final String ORIGEM_REQUISICAO = "requisicao";
+    public static final String ORIGEM_LOTE = "lote";
+
+    private final Counter naoEncontradas;
+    private final Counter falhasValidacaoRequisicao;
+    private final Counter falhasValidacaoLote;
+
+    public MensagemMetricas(MeterRegistry meterRegistry) {
+        naoEncontradas = Counter.builder("mensagens.nao.encontradas")
+                .description("Requisições para mensagens inexistentes")
+                .register(meterRegistry);
+        falhasValidacaoRequisicao = falhasValidacao(meterRegistry, ORIGEM_REQUISICAO);
+        falhasValidacaoLote = falhasValidacao(meterRegistry, ORIGEM_LOTE);
+    }
+
+    private static Counter falhasValidacao(MeterRegistry meterRegistry, String origem) {
+        return Counter.builder("mensagens.validacao.falhas")
+                .description("Mensagens rejeitadas pela validação")
+                .tag("origem", origem)
+                .register(meterRegistry);
+    }
+
+    public void mensagemNaoEncontrada() {
+        naoEncontradas.increment();
+    }
+
+    public void falhaValidacao() {
+        falhasValidacaoRequisicao.increment();
+    }
+
+    public void falhasValidacaoLote(int quantidade) {
+        falhasValidacaoLote.increment(quantidade);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Habilita {@link io.micrometer.core.annotation.Timed} nos beans da aplicação; cada
+     * timer recebe as tags {@code class}, {@code method} e {@code exception}.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -1,30 +1,49 @@
 package br.com.fiap.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.extern.jackson.Jacksonized;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Where;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_mensagem_timeline", columnList = "dataCriacao DESC, id DESC"),
+        @Index(name = "idx_mensagem_usuario_timeline", columnList = "usuario, dataCriacao DESC, id DESC")
+})
+@DynamicUpdate
+@Where(clause = "data_remocao IS NULL")
 @Data
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Jacksonized
-public class Mensagem {
+public class Mensagem implements Persistable<UUID> {
 
     @Id
     @GenericGenerator(name = "uuid")
@@ -47,6 +66,39 @@ public class Mensagem {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS")
     private LocalDateTime dataAlteracao;
 
+    /**
+     * Versão do conteúdo, incrementada a cada edição; o contador de "gostei" é alterado sem
+     * mudar a versão. Enviada de volta no {@code If-Match} do {@code PUT}, na forma de ETag.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long versao;
+
+    /**
+     * Momento da remoção lógica. As mensagens removidas continuam na tabela até serem apagadas
+     * pelo {@link br.com.fiap.service.PurgadorMensagens}, mas o {@code @Where} as exclui de
+     * todas as consultas da entidade, inclusive do {@code findById}.
+     */
+    @JsonIgnore
+    private LocalDateTime dataRemocao;
+
+    /**
+     * O ID é atribuído pela aplicação, então o Spring Data não consegue deduzir se a entidade
+     * é nova pelo ID nulo; sem este controle o {@code save} faria um SELECT antes de cada INSERT.
+     */
+    @Transient
+    @JsonIgnore
+    @Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean novo = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return novo;
+    }
+
     @PrePersist
     private void prePersist() {
         var timestamp = LocalDateTime.now();
@@ -60,4 +112,10 @@ public class Mensagem {
         dataAlteracao = timestamp;
     }
 
+    @PostLoad
+    @PostPersist
+    private void marcarPersistida() {
+        novo = false;
+    }
+
 }
@@ -0,0 +1,27 @@
+package br.com.fiap.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento compartilhado entre as instâncias da aplicação (Redis, Hazelcast, ...) para
+ * o {@link LimitadorTaxaCompartilhado}. Basta guardar um {@code long} por chave e oferecer
+ * compare-and-set, como {@code WATCH}/{@code MULTI} ou um script Lua no Redis.
+ * <p>
+ * Registrar um bean desta interface faz os limites valerem para o conjunto das instâncias em
+ * vez de para cada uma.
+ */
+public interface ArmazenamentoLimites {
+
+    /**
+     * Valor gravado para a chave, ou {@link LimiteTaxa#CHEIO} se ausente ou expirado.
+     */
+    long obter(String chave);
+
+    /**
+     * Grava {@code novo} se o valor atual da chave ainda é {@code esperado}
+     * ({@link LimiteTaxa#CHEIO} para uma chave ausente). A chave expira após {@code ttl}.
+     *
+     * @return {@code false} se outra requisição alterou a chave antes
+     */
+    boolean substituir(String chave, long esperado, long novo, Duration ttl);
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.ratelimit;
+
+/**
+ * Armazenamento dos baldes de {@link LimiteTaxa}, um por chave.
+ */
+public interface LimitadorTaxa {
+
+    /**
+     * Consome um token do balde de {@code chave}.
+     *
+     * @return 0 se a requisição foi aceita; se foi recusada, o tempo em nanossegundos até
+     * haver um token disponível
+     */
+    long consumir(String chave, LimiteTaxa limite);
+}
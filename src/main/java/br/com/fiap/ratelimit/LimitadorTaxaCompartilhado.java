@@ -0,0 +1,73 @@
+package br.com.fiap.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Baldes gravados em um {@link ArmazenamentoLimites} comum a todas as instâncias, de modo que
+ * um cliente não multiplique o seu limite distribuindo as requisições entre elas.
+ * <p>
+ * O TAT usa o relógio de parede, compartilhado entre as instâncias; diferenças de relógio
+ * entre elas apenas adiantam ou atrasam a reposição de tokens nessa medida. Cada chave expira
+ * quando o seu balde estaria cheio, sem ocupar o armazenamento além disso.
+ * <p>
+ * Se o armazenamento falhar ou a chave for disputada além de {@link #TENTATIVAS} vezes, a
+ * requisição é avaliada pelo limitador local da instância: o limite fica mais frouxo, mas a
+ * API continua atendendo.
+ */
+@Slf4j
+public class LimitadorTaxaCompartilhado implements LimitadorTaxa {
+
+    static final int TENTATIVAS = 8;
+
+    private final ArmazenamentoLimites armazenamento;
+    private final Clock relogio;
+    private final LimitadorTaxa alternativo;
+    private volatile boolean indisponivel;
+
+    public LimitadorTaxaCompartilhado(ArmazenamentoLimites armazenamento, Clock relogio, LimitadorTaxa alternativo) {
+        this.armazenamento = armazenamento;
+        this.relogio = relogio;
+        this.alternativo = alternativo;
+    }
+
+    @Override
+    public long consumir(String chave, LimiteTaxa limite) {
+        try {
+            for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+                var agora = agora();
+                var tat = armazenamento.obter(chave);
+                var espera = limite.espera(tat, agora);
+                if (espera > 0) {
+                    disponivel();
+                    return espera;
+                }
+                var proximo = limite.proximo(tat, agora);
+                if (armazenamento.substituir(chave, tat, proximo, Duration.ofNanos(proximo - agora))) {
+                    disponivel();
+                    return 0;
+                }
+            }
+        } catch (RuntimeException e) {
+            if (!indisponivel) {
+                indisponivel = true;
+                log.warn("armazenamento de limites indisponível, aplicando os limites por instância", e);
+            }
+        }
+        return alternativo.consumir(chave, limite);
+    }
+
+    private void disponivel() {
+        if (indisponivel) {
+            indisponivel = false;
+            log.info("armazenamento de limites disponível novamente");
+        }
+    }
+
+    private long agora() {
+        var instante = relogio.instant();
+        return instante.getEpochSecond() * 1_000_000_000 + instante.getNano();
+    }
+}
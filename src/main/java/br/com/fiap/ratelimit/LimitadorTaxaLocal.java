@@ -0,0 +1,57 @@
+package br.com.fiap.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Baldes mantidos na memória da instância, em um {@link AtomicLong} por chave atualizado com
+ * compare-and-set.
+ * <p>
+ * As chaves sem uso por {@code ociosidade} são descartadas; com a ociosidade maior que o
+ * tempo para encher o balde, o descarte não altera o limite. Acima de {@code maximoChaves}
+ * (por exemplo, durante uma varredura de muitos IPs) as chaves menos usadas são descartadas
+ * antes e voltam com o balde cheio.
+ */
+public class LimitadorTaxaLocal implements LimitadorTaxa {
+
+    private final Cache<String, AtomicLong> baldes;
+    private final Ticker relogio;
+
+    public LimitadorTaxaLocal(long maximoChaves, Duration ociosidade) {
+        this(maximoChaves, ociosidade, Ticker.systemTicker());
+    }
+
+    LimitadorTaxaLocal(long maximoChaves, Duration ociosidade, Ticker relogio) {
+        this.relogio = relogio;
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterAccess(ociosidade)
+                .ticker(relogio)
+                .build();
+    }
+
+    @Override
+    public long consumir(String chave, LimiteTaxa limite) {
+        var balde = baldes.get(chave, k -> new AtomicLong(LimiteTaxa.CHEIO));
+        while (true) {
+            var agora = relogio.read();
+            var tat = balde.get();
+            var espera = limite.espera(tat, agora);
+            if (espera > 0) {
+                return espera;
+            }
+            if (balde.compareAndSet(tat, limite.proximo(tat, agora))) {
+                return 0;
+            }
+        }
+    }
+
+    long chaves() {
+        baldes.cleanUp();
+        return baldes.estimatedSize();
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.fiap.ratelimit;
+
+/**
+ * Balde de tokens com reposição de {@code taxa} tokens por segundo e capacidade para
+ * {@code rajada} requisições seguidas.
+ * <p>
+ * O balde é representado pelo instante teórico de chegada (TAT) da próxima requisição, em
+ * nanossegundos (GCRA): um único {@code long} por chave, que pode ser atualizado com
+ * compare-and-set, sem locks nem uma thread de reposição.
+ */
+public record LimiteTaxa(double taxa, int rajada) {
+
+    /**
+     * TAT de um balde ainda não utilizado, equivalente a um balde cheio.
+     */
+    public static final long CHEIO = Long.MIN_VALUE;
+
+    public LimiteTaxa {
+        if (!(taxa > 0) || rajada < 1) {
+            throw new IllegalArgumentException("limite inválido: taxa " + taxa + ", rajada " + rajada);
+        }
+    }
+
+    /**
+     * Intervalo entre dois tokens.
+     */
+    public long intervaloNanos() {
+        return Math.max(1, (long) (1_000_000_000 / taxa));
+    }
+
+    /**
+     * Tempo para encher um balde vazio; após esse tempo sem uso a chave pode ser descartada.
+     */
+    public long capacidadeNanos() {
+        return intervaloNanos() * rajada;
+    }
+
+    /**
+     * Tempo até haver um token no balde com o TAT informado, ou 0 se há token disponível.
+     */
+    public long espera(long tat, long agora) {
+        return Math.max(0, proximo(tat, agora) - agora - capacidadeNanos());
+    }
+
+    /**
+     * TAT do balde após consumir um token.
+     */
+    public long proximo(long tat, long agora) {
+        return Math.max(tat, agora) + intervaloNanos();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fiap.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Limite de requisições por IP nos endpoints {@code /mensagens} (RNF06). Os baldes ficam na
+ * memória de cada instância, a menos que exista um bean de {@link ArmazenamentoLimites}.
+ * Desabilitado com {@code mensagens.limite.enabled=false}, como nos testes de carga e nos
+ * benchmarks, que enviam todas as requisições do mesmo IP.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "mensagens.limite.enabled", havingValue = "true", matchIfMissing = true)
+public class LimiteTaxaConfig {
+
+    private final LimiteTaxa leitura;
+    private final LimiteTaxa escrita;
+
+    public LimiteTaxaConfig(
+            @Value("${mensagens.limite.leitura.taxa:50}") double taxaLeitura,
+            @Value("${mensagens.limite.leitura.rajada:100}") int rajadaLeitura,
+            @Value("${mensagens.limite.escrita.taxa:10}") double taxaEscrita,
+            @Value("${mensagens.limite.escrita.rajada:20}") int rajadaEscrita) {
+        this.leitura = new LimiteTaxa(taxaLeitura, rajadaLeitura);
+        this.escrita = new LimiteTaxa(taxaEscrita, rajadaEscrita);
+    }
+
+    @Bean
+    public LimitadorTaxa limitadorTaxa(
+            @Value("${mensagens.limite.maximo-chaves:100000}") long maximoChaves,
+            ObjectProvider<ArmazenamentoLimites> armazenamento) {
+        // uma chave ociosa por mais tempo que o necessário para encher o balde equivale a uma nova
+        var ociosidade = Duration.ofNanos(Math.max(leitura.capacidadeNanos(), escrita.capacidadeNanos()));
+        var local = new LimitadorTaxaLocal(maximoChaves, ociosidade);
+        var compartilhado = armazenamento.getIfAvailable();
+        return compartilhado == null
+                ? local
+                : new LimitadorTaxaCompartilhado(compartilhado, Clock.systemUTC(), local);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LimiteTaxaFilter> limiteTaxaFilter(
+            LimitadorTaxa limitadorTaxa, MeterRegistry meterRegistry) {
+        var registro = new FilterRegistrationBean<>(
+                new LimiteTaxaFilter(limitadorTaxa, leitura, escrita, meterRegistry));
+        registro.addUrlPatterns("/mensagens/*");
+        // depois da observação do Spring (HIGHEST_PRECEDENCE + 1), para que as respostas 429
+        // também apareçam em http.server.requests
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
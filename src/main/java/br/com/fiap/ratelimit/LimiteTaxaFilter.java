@@ -0,0 +1,77 @@
+package br.com.fiap.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições de cada IP de cliente, com um balde para as leituras ({@code GET},
+ * {@code HEAD}) e outro, em geral menor, para as escritas, que ocupam o banco de dados por
+ * mais tempo. Acima do limite responde {@code 429 Too Many Requests} com {@code Retry-After}
+ * sem chegar ao controller nem ao pool de conexões.
+ * <p>
+ * O IP é o de {@link HttpServletRequest#getRemoteAddr()}: atrás de um proxy reverso é preciso
+ * habilitar {@code server.forward-headers-strategy} para que seja o do cliente, e não o do
+ * proxy.
+ */
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    static final String MENSAGEM = "limite de requisições excedido";
+
+    private final LimitadorTaxa limitador;
+    private final LimiteTaxa leitura;
+    private final LimiteTaxa escrita;
+    private final Counter rejeitadasLeitura;
+    private final Counter rejeitadasEscrita;
+
+    public LimiteTaxaFilter(LimitadorTaxa limitador, LimiteTaxa leitura, LimiteTaxa escrita, MeterRegistry meterRegistry) {
+        this.limitador = limitador;
+        this.leitura = leitura;
+        this.escrita = escrita;
+        this.rejeitadasLeitura = rejeitadas(meterRegistry, "leitura");
+        this.rejeitadasEscrita = rejeitadas(meterRegistry, "escrita");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var ehLeitura = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        var espera = ehLeitura
+                ? limitador.consumir(request.getRemoteAddr() + "|leitura", leitura)
+                : limitador.consumir(request.getRemoteAddr() + "|escrita", escrita);
+        if (espera == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        (ehLeitura ? rejeitadasLeitura : rejeitadasEscrita).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos(espera)));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(MENSAGEM.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * O {@code Retry-After} é em segundos inteiros, arredondado para cima.
+     */
+    static long segundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999));
+    }
+
+    private static Counter rejeitadas(MeterRegistry meterRegistry, String rota) {
+        return Counter.builder("mensagens.limite.rejeitadas")
+                .description("requisições recusadas pelo limite de taxa por IP")
+                .tag("rota", rota)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.fiap.repository;
+
+import br.com.fiap.model.Mensagem;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Consultas da variante reativa, equivalentes às de {@link MensagemRepository}, escritas em
+ * SQL sobre o {@link DatabaseClient} para usar o mesmo esquema mantido pelo Flyway.
+ * <p>
+ * Sem o {@code @Where} da entidade, cada consulta e alteração filtra explicitamente as
+ * mensagens removidas logicamente ({@code data_remocao IS NULL}).
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MensagemReativoRepository {
+
+    private static final String SELECT = "SELECT id, usuario, conteudo, gostei, data_criacao, data_alteracao, versao "
+            + "FROM mensagem WHERE data_remocao IS NULL ";
+    private static final String ORDEM_TIMELINE = "ORDER BY data_criacao DESC, id DESC ";
+    private static final String ORDEM_TIMELINE_USUARIO = "ORDER BY usuario, data_criacao DESC, id DESC ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Mensagem> inserir(Mensagem mensagem) {
+        return databaseClient.sql("INSERT INTO mensagem "
+                        + "(id, usuario, conteudo, gostei, data_criacao, data_alteracao) "
+                        + "VALUES (:id, :usuario, :conteudo, :gostei, :dataCriacao, :dataAlteracao)")
+                .bind("id", mensagem.getId())
+                .bind("usuario", mensagem.getUsuario())
+                .bind("conteudo", mensagem.getConteudo())
+                .bind("gostei", mensagem.getGostei())
+                .bind("dataCriacao", mensagem.getDataCriacao())
+                .bind("dataAlteracao", mensagem.getDataAlteracao())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(mensagem);
+    }
+
+    public Mono<Mensagem> buscar(UUID id) {
+        return databaseClient.sql(SELECT + "AND id = :id")
+                .bind("id", id)
+                .map(MensagemReativoRepository::mapear)
+                .one();
+    }
+
+    public Mono<Long> atualizarConteudo(Mensagem mensagem) {
+        return databaseClient.sql("UPDATE mensagem SET conteudo = :conteudo, data_alteracao = :dataAlteracao, "
+                        + "versao = versao + 1 "
+                        + "WHERE id = :id AND data_remocao IS NULL")
+                .bind("id", mensagem.getId())
+                .bind("conteudo", mensagem.getConteudo())
+                .bind("dataAlteracao", mensagem.getDataAlteracao())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> remover(UUID id) {
+        return databaseClient.sql("DELETE FROM mensagem WHERE id = :id AND data_remocao IS NULL")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Flux<Mensagem> obterMensagens(Pageable pageable) {
+        return databaseClient.sql(SELECT + ORDEM_TIMELINE + "LIMIT :limite OFFSET :offset")
+                .bind("limite", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(MensagemReativoRepository::mapear)
+                .all();
+    }
+
+    public Mono<Long> contar() {
+        return databaseClient.sql("SELECT COUNT(*) FROM mensagem WHERE data_remocao IS NULL")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<Mensagem> obterMensagensApos(LocalDateTime dataCriacao, UUID id, int limite) {
+        return databaseClient.sql(SELECT
+                        + "AND data_criacao <= :dataCriacao AND (data_criacao < :dataCriacao OR id < :id) "
+                        + ORDEM_TIMELINE + "LIMIT :limite")
+                .bind("dataCriacao", dataCriacao)
+                .bind("id", id)
+                .bind("limite", limite)
+                .map(MensagemReativoRepository::mapear)
+                .all();
+    }
+
+    /**
+     * Timeline de um usuário, na ordem do índice (usuario, data_criacao DESC, id DESC), como em
+     * {@link MensagemRepository#obterMensagensDoUsuario}.
+     */
+    public Flux<Mensagem> obterMensagensDoUsuario(String usuario, int limite) {
+        return databaseClient.sql(SELECT + "AND usuario = :usuario " + ORDEM_TIMELINE_USUARIO + "LIMIT :limite")
+                .bind("usuario", usuario)
+                .bind("limite", limite)
+                .map(MensagemReativoRepository::mapear)
+                .all();
+    }
+
+    public Flux<Mensagem> obterMensagensDoUsuarioApos(String usuario, LocalDateTime dataCriacao, UUID id, int limite) {
+        return databaseClient.sql(SELECT
+                        + "AND usuario = :usuario "
+                        + "AND data_criacao <= :dataCriacao AND (data_criacao < :dataCriacao OR id < :id) "
+                        + ORDEM_TIMELINE_USUARIO + "LIMIT :limite")
+                .bind("usuario", usuario)
+                .bind("dataCriacao", dataCriacao)
+                .bind("id", id)
+                .bind("limite", limite)
+                .map(MensagemReativoRepository::mapear)
+                .all();
+    }
+
+    /**
+     * Retorna 0 quando a mensagem não existe e falha com
+     * {@link org.springframework.dao.DataIntegrityViolationException} quando o usuário já
+     * gostou dela.
+     */
+    public Mono<Long> registrarGostei(UUID id, String usuario) {
+        return databaseClient.sql("INSERT INTO mensagem_gostei (mensagem_id, usuario) "
+                        + "SELECT m.id, :usuario FROM mensagem m WHERE m.id = :id AND m.data_remocao IS NULL")
+                .bind("id", id)
+                .bind("usuario", usuario)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> incrementarGostei(UUID id) {
+        return databaseClient.sql("UPDATE mensagem SET gostei = gostei + 1 WHERE id = :id AND data_remocao IS NULL")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Mensagem mapear(Readable row) {
+        return Mensagem.builder()
+                .id(row.get("id", UUID.class))
+                .usuario(row.get("usuario", String.class))
+                .conteudo(row.get("conteudo", String.class))
+                .gostei(row.get("gostei", Integer.class))
+                .dataCriacao(row.get("data_criacao", LocalDateTime.class))
+                .dataAlteracao(row.get("data_alteracao", LocalDateTime.class))
+                .versao(row.get("versao", Long.class))
+                .novo(false)
+                .build();
+    }
+}
@@ -1,17 +1,171 @@
 package br.com.fiap.repository;
 
+import br.com.fiap.dto.MensagemResumo;
 import br.com.fiap.model.Mensagem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MensagemRepository extends JpaRepository<Mensagem, UUID> {
 
-    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC")
+    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC, m.id DESC")
     Page<Mensagem> obterMensagens(Pageable pageable);
+
+    /**
+     * Timeline paginada lendo apenas as colunas exibidas, direto para {@link MensagemResumo}:
+     * nenhuma entidade é carregada no contexto de persistência. A transação somente leitura
+     * deixa a sessão em {@code FlushMode.MANUAL}, sem o flush automático antes da consulta.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT new br.com.fiap.dto.MensagemResumo(" +
+            "m.id, m.usuario, m.conteudo, m.gostei, m.dataCriacao, m.versao) " +
+            "FROM Mensagem m ORDER BY m.dataCriacao DESC, m.id DESC",
+            countQuery = "SELECT COUNT(m) FROM Mensagem m")
+    Page<MensagemResumo> obterResumos(Pageable pageable);
+
+    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> obterMensagensIniciais(Pageable pageable);
+
+    /**
+     * Página seguinte da timeline. A condição {@code dataCriacao <= :dataCriacao}, redundante,
+     * delimita a faixa do índice a percorrer; sem ela o H2 leria o índice desde o início e
+     * descartaria todas as linhas anteriores ao cursor.
+     */
+    @Query("SELECT m FROM Mensagem m " +
+            "WHERE m.dataCriacao <= :dataCriacao " +
+            "AND (m.dataCriacao < :dataCriacao OR m.id < :id) " +
+            "ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> obterMensagensApos(@Param("dataCriacao") LocalDateTime dataCriacao,
+                                      @Param("id") UUID id,
+                                      Pageable pageable);
+
+    /**
+     * Timeline de um usuário. O {@code usuario} no {@code ORDER BY} não altera o resultado, mas
+     * faz a ordenação coincidir com o índice (usuario, data_criacao DESC, id DESC), que é lido
+     * já ordenado e interrompido ao completar a página.
+     */
+    @Query("SELECT m FROM Mensagem m " +
+            "WHERE m.usuario = :usuario " +
+            "ORDER BY m.usuario, m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> obterMensagensDoUsuario(@Param("usuario") String usuario, Pageable pageable);
+
+    /**
+     * Página seguinte da timeline do usuário. A condição {@code dataCriacao <= :dataCriacao},
+     * redundante, delimita a faixa do índice a percorrer: o custo não cresce com a posição do
+     * cursor.
+     */
+    @Query("SELECT m FROM Mensagem m " +
+            "WHERE m.usuario = :usuario " +
+            "AND m.dataCriacao <= :dataCriacao " +
+            "AND (m.dataCriacao < :dataCriacao OR m.id < :id) " +
+            "ORDER BY m.usuario, m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> obterMensagensDoUsuarioApos(@Param("usuario") String usuario,
+                                               @Param("dataCriacao") LocalDateTime dataCriacao,
+                                               @Param("id") UUID id,
+                                               Pageable pageable);
+
+    /**
+     * Percorre todas as mensagens, da mais antiga para a mais recente, com um cursor do banco
+     * de dados: as linhas são lidas em blocos de {@code fetchSize}, sem montar uma lista. Deve
+     * ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao, m.id")
+    Stream<Mensagem> exportarMensagens();
+
+    /**
+     * Altera o conteúdo e retorna a mensagem atualizada em uma única ida ao banco de dados: o
+     * {@code FINAL TABLE} do H2 devolve as linhas como ficaram após o UPDATE, sem um SELECT
+     * antes nem depois (em PostgreSQL, {@code UPDATE ... RETURNING *}). Apenas as colunas
+     * editadas e a versão são gravadas, sem sobrescrever um "gostei" concorrente.
+     * <p>
+     * Com {@code versao} informada, a linha só é alterada se ainda estiver nessa versão.
+     * Retorna vazio quando a mensagem não existe, foi removida ou está em outra versão.
+     */
+    @Query(value = "SELECT * FROM FINAL TABLE (" +
+            "UPDATE mensagem SET conteudo = :conteudo, data_alteracao = :dataAlteracao, versao = versao + 1 " +
+            "WHERE id = :id AND data_remocao IS NULL AND (CAST(:versao AS BIGINT) IS NULL OR versao = :versao))",
+            nativeQuery = true)
+    Optional<Mensagem> atualizarConteudo(@Param("id") UUID id,
+                                         @Param("conteudo") String conteudo,
+                                         @Param("dataAlteracao") LocalDateTime dataAlteracao,
+                                         @Param("versao") Long versao);
+
+    /**
+     * Remove a mensagem em um único DELETE, sem carregá-la antes; os "gostei" são removidos
+     * pelo {@code ON DELETE CASCADE}. Retorna 0 quando a mensagem não existe.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Mensagem m WHERE m.id = :id")
+    int removerMensagem(@Param("id") UUID id);
+
+    /**
+     * Remove as mensagens em um único DELETE e retorna os IDs das que existiam, lidos do
+     * {@code OLD TABLE} do H2 (em PostgreSQL, {@code DELETE ... RETURNING id}). Os IDs voltam
+     * como texto: o Hibernate não converte sozinho a coluna UUID de uma consulta nativa.
+     */
+    @Query(value = "SELECT CAST(id AS VARCHAR) FROM OLD TABLE (DELETE FROM mensagem WHERE id IN (:ids))",
+            nativeQuery = true)
+    List<String> removerMensagens(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Remoção lógica: marca a mensagem como removida e a coloca na fila de
+     * {@code mensagem_remocao} no mesmo comando, com o UPDATE lido do {@code FINAL TABLE} pelo
+     * INSERT. Retorna 0 quando a mensagem não existe ou já foi removida.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO mensagem_remocao (mensagem_id, data_remocao) " +
+            "SELECT id, data_remocao FROM FINAL TABLE (" +
+            "UPDATE mensagem SET data_remocao = :dataRemocao WHERE id = :id AND data_remocao IS NULL)",
+            nativeQuery = true)
+    int removerMensagemLogicamente(@Param("id") UUID id, @Param("dataRemocao") LocalDateTime dataRemocao);
+
+    /**
+     * Remoção lógica em lote, em um único comando, retornando os IDs das mensagens que existiam
+     * e ainda não tinham sido removidas.
+     */
+    @Query(value = "SELECT CAST(mensagem_id AS VARCHAR) FROM FINAL TABLE (" +
+            "INSERT INTO mensagem_remocao (mensagem_id, data_remocao) " +
+            "SELECT id, data_remocao FROM FINAL TABLE (" +
+            "UPDATE mensagem SET data_remocao = :dataRemocao WHERE id IN (:ids) AND data_remocao IS NULL))",
+            nativeQuery = true)
+    List<String> removerMensagensLogicamente(@Param("ids") Collection<UUID> ids,
+                                             @Param("dataRemocao") LocalDateTime dataRemocao);
+
+    /**
+     * Registra que o usuário gostou da mensagem. Retorna 0 quando a mensagem não existe ou foi
+     * removida e lança {@link org.springframework.dao.DataIntegrityViolationException} quando
+     * o usuário já gostou dela.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO mensagem_gostei (mensagem_id, usuario) " +
+            "SELECT m.id, :usuario FROM mensagem m WHERE m.id = :id AND m.data_remocao IS NULL",
+            nativeQuery = true)
+    int registrarGostei(@Param("id") UUID id, @Param("usuario") String usuario);
+
+    /**
+     * Incrementa o contador em um único UPDATE atômico, sem ler a entidade.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mensagem m SET m.gostei = m.gostei + 1 WHERE m.id = :id")
+    int incrementarGostei(@Param("id") UUID id);
 }
@@ -0,0 +1,16 @@
+package br.com.fiap.service;
+
+import java.util.UUID;
+
+/**
+ * Estratégia de persistência do contador de "gostei" de uma mensagem.
+ */
+public interface ContadorGostei {
+
+    void incrementar(UUID id);
+
+    /**
+     * Quantidade de "gostei" já aceitos, mas ainda não gravados no banco de dados.
+     */
+    long pendentes(UUID id);
+}
@@ -0,0 +1,92 @@
+package br.com.fiap.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acumula os "gostei" em memória, em um contador por mensagem, e grava os incrementos em lote,
+ * em um único batch JDBC, a cada {@code mensagens.gostei.write-behind.intervalo} milissegundos.
+ * Evita que uma mensagem muito popular transforme a sua linha na tabela em um ponto de
+ * contenção de locks: a disputa fica restrita à atualização atômica do contador em memória.
+ * <p>
+ * Após o commit do lote, cada valor gravado é subtraído do seu contador, e o que foi
+ * incrementado durante a gravação permanece pendente para o próximo ciclo. Se a gravação
+ * falhar, nada é subtraído e os mesmos incrementos são gravados na próxima tentativa.
+ * <p>
+ * <b>Segurança em caso de falha:</b> um encerramento abrupto da aplicação perde os incrementos
+ * ainda não gravados: os do último intervalo (por exemplo, 500 ms com o intervalo padrão) ou,
+ * se as gravações estiverem falhando, todos os acumulados desde a última gravação
+ * bem-sucedida, sem limite. Os registros de {@code mensagem_gostei} são gravados de forma
+ * síncrona, portanto o contador pode ser reconciliado com
+ * {@code UPDATE mensagem m SET gostei = (SELECT COUNT(*) FROM mensagem_gostei g WHERE g.mensagem_id = m.id)}.
+ * No encerramento normal ({@code server.shutdown: graceful}) os incrementos pendentes são gravados.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mensagens.gostei.write-behind.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ContadorGosteiAcumulado implements ContadorGostei {
+
+    private static final String SQL_INCREMENTAR = "UPDATE mensagem SET gostei = gostei + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MensagemCache mensagemCache;
+
+    private final Map<UUID, Long> pendentes = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementar(UUID id) {
+        pendentes.merge(id, 1L, Long::sum);
+    }
+
+    @Override
+    public long pendentes(UUID id) {
+        return pendentes.getOrDefault(id, 0L);
+    }
+
+    @Scheduled(fixedDelayString = "${mensagens.gostei.write-behind.intervalo:500}")
+    public synchronized void descarregar() {
+        List<Object[]> incrementos = new ArrayList<>(pendentes.size());
+        pendentes.entrySet().stream()
+                // ordem fixa de atualização evita deadlock com outras transações
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .forEach(e -> incrementos.add(new Object[]{e.getValue(), e.getKey()}));
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(SQL_INCREMENTAR, incrementos));
+        } catch (RuntimeException e) {
+            log.warn("falha ao gravar {} contadores de gostei, nova tentativa no próximo ciclo", incrementos.size(), e);
+            return;
+        }
+        incrementos.forEach(incremento -> {
+            var id = (UUID) incremento[1];
+            var gravado = (long) incremento[0];
+            // remove o contador quando não houve novos "gostei" durante a gravação
+            pendentes.computeIfPresent(id, (chave, valor) -> valor == gravado ? null : valor - gravado);
+            // o valor gravado mudou: a próxima leitura busca o contador atualizado no banco
+            mensagemCache.invalidar(id);
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        descarregar();
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.fiap.service;
+
+import br.com.fiap.repository.MensagemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Grava cada "gostei" imediatamente, com um UPDATE atômico na mesma transação do registro
+ * do usuário.
+ */
+@Component
+@ConditionalOnProperty(name = "mensagens.gostei.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ContadorGosteiImediato implements ContadorGostei {
+
+    private final MensagemRepository mensagemRepository;
+
+    @Override
+    public void incrementar(UUID id) {
+        mensagemRepository.incrementarGostei(id);
+    }
+
+    @Override
+    public long pendentes(UUID id) {
+        return 0;
+    }
+}
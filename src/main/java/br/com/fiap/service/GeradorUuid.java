@@ -0,0 +1,47 @@
+package br.com.fiap.service;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera identificadores UUID versão 7 (RFC 9562): os 48 bits mais significativos guardam o
+ * instante de criação em milissegundos, de modo que ids gerados em sequência ficam próximos
+ * no índice da chave primária, em vez de espalhados como os da versão 4.
+ * <p>
+ * Os 12 bits seguintes ({@code rand_a}) funcionam como contador dentro do mesmo
+ * milissegundo, o que garante ordem estritamente crescente nesta instância mesmo com várias
+ * threads ou com o relógio voltando no tempo; se o contador estourar, o id avança para o
+ * milissegundo seguinte. Os 62 bits finais são aleatórios.
+ */
+public final class GeradorUuid {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long VERSAO = 0x7000L;
+    private static final long VARIANTE = 0x8000_0000_0000_0000L;
+
+    /** Milissegundos (48 bits) seguidos do contador (12 bits) do último id gerado. */
+    private static final AtomicLong ultimo = new AtomicLong();
+
+    private GeradorUuid() {
+    }
+
+    public static UUID gerar() {
+        var agora = System.currentTimeMillis() << 12;
+        var sequencia = ultimo.updateAndGet(anterior -> Math.max(anterior + 1, agora));
+        var msb = (sequencia >>> 12) << 16 | VERSAO | (sequencia & 0xFFF);
+        var lsb = RANDOM.nextLong() >>> 2 | VARIANTE;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Instante de criação registrado em um UUID versão 7.
+     */
+    public static Instant instante(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("UUID não é da versão 7");
+        }
+        return Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+    }
+}
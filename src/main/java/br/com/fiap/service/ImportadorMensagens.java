@@ -0,0 +1,382 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dto.ErroImportacao;
+import br.com.fiap.dto.ImportacaoResponse;
+import br.com.fiap.model.Mensagem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Importação de grandes volumes de mensagens em NDJSON ou CSV.
+ * <p>
+ * A thread da requisição apenas lê o corpo e o divide em blocos de
+ * {@code mensagens.importacao.tamanho-bloco} registros. Cada bloco é convertido, validado com as
+ * mesmas restrições de {@link Mensagem} e gravado com um único {@code INSERT} de várias linhas
+ * por um pool de {@code mensagens.importacao.threads} threads. No máximo duas vezes esse número
+ * de blocos fica em memória: quando o banco não acompanha, a leitura do corpo espera.
+ * <p>
+ * Quando o {@code INSERT} de um bloco falha (um conteúdo maior que a coluna, por exemplo), as
+ * linhas do bloco são gravadas uma a uma para identificar as rejeitadas. As mensagens
+ * importadas recebem novos IDs e não geram {@link br.com.fiap.event.MensagemEvento}: cada bloco
+ * gravado é incluído diretamente no {@link IndiceMensagens}, e a timeline em memória se
+ * atualiza na próxima recarga.
+ */
+@Slf4j
+@Component
+public class ImportadorMensagens {
+
+    public enum Formato {
+        NDJSON,
+        CSV
+    }
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO mensagem (id, usuario, conteudo, gostei, data_criacao, data_alteracao) VALUES ";
+    private static final String VALORES = "(?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IndiceMensagens indiceMensagens;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int threads;
+    private final int tamanhoBloco;
+    private final int maximoErros;
+
+    public ImportadorMensagens(
+            JdbcTemplate jdbcTemplate,
+            IndiceMensagens indiceMensagens,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${mensagens.importacao.threads:0}") int threads,
+            @Value("${mensagens.importacao.tamanho-bloco:500}") int tamanhoBloco,
+            @Value("${mensagens.importacao.maximo-erros:1000}") int maximoErros) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indiceMensagens = indiceMensagens;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.tamanhoBloco = tamanhoBloco;
+        this.maximoErros = maximoErros;
+        var contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, tarefa -> {
+            var thread = new Thread(tarefa, "importacao-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    private record Registro(long linha, String texto) {
+    }
+
+    /**
+     * Estado de uma importação, compartilhado pelas threads que processam os blocos.
+     */
+    private final class Importacao {
+
+        final AtomicLong importadas = new AtomicLong();
+        final AtomicLong rejeitadas = new AtomicLong();
+        final ConcurrentLinkedQueue<ErroImportacao> erros = new ConcurrentLinkedQueue<>();
+        final AtomicInteger errosGuardados = new AtomicInteger();
+        final AtomicReference<RuntimeException> falha = new AtomicReference<>();
+        final Semaphore blocosEmAndamento = new Semaphore(threads * 2);
+        final Phaser pendentes = new Phaser(1);
+
+        void rejeitar(long linha, List<String> errors) {
+            rejeitadas.incrementAndGet();
+            if (errosGuardados.incrementAndGet() <= maximoErros) {
+                erros.add(new ErroImportacao(linha, errors));
+            }
+        }
+    }
+
+    public ImportacaoResponse importar(InputStream entrada, Formato formato) throws IOException {
+        var inicio = System.nanoTime();
+        var importacao = new Importacao();
+        var leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            long[] linha = {0};
+            var conversor = formato == Formato.CSV
+                    ? new ConversorCsv(lerRegistroCsv(leitor, linha))
+                    : null;
+            var bloco = new ArrayList<Registro>(tamanhoBloco);
+            Registro registro;
+            while (importacao.falha.get() == null
+                    && (registro = ler(leitor, formato, linha)) != null) {
+                if (registro.texto().isBlank()) {
+                    continue;
+                }
+                bloco.add(registro);
+                if (bloco.size() == tamanhoBloco) {
+                    enviar(bloco, conversor, importacao);
+                    bloco = new ArrayList<>(tamanhoBloco);
+                }
+            }
+            if (!bloco.isEmpty()) {
+                enviar(bloco, conversor, importacao);
+            }
+        } finally {
+            importacao.pendentes.arriveAndAwaitAdvance();
+        }
+        if (importacao.falha.get() != null) {
+            throw importacao.falha.get();
+        }
+
+        var duracaoNanos = Math.max(System.nanoTime() - inicio, 1);
+        var importadas = importacao.importadas.get();
+        var porSegundo = importadas * 1_000_000_000L / duracaoNanos;
+        var erros = new ArrayList<>(importacao.erros);
+        erros.sort(Comparator.comparingLong(ErroImportacao::getLinha));
+        log.info("importação concluída: {} mensagens em {} ms ({} por segundo), {} rejeitadas",
+                importadas, duracaoNanos / 1_000_000, porSegundo, importacao.rejeitadas.get());
+        return new ImportacaoResponse(importadas, importacao.rejeitadas.get(),
+                duracaoNanos / 1_000_000, porSegundo, erros);
+    }
+
+    private void enviar(List<Registro> bloco, ConversorCsv conversor, Importacao importacao) {
+        try {
+            importacao.blocosEmAndamento.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("importação interrompida", e);
+        }
+        importacao.pendentes.register();
+        executor.execute(() -> {
+            try {
+                processar(bloco, conversor, importacao);
+            } catch (RuntimeException e) {
+                importacao.falha.compareAndSet(null, e);
+            } finally {
+                importacao.blocosEmAndamento.release();
+                importacao.pendentes.arriveAndDeregister();
+            }
+        });
+    }
+
+    private void processar(List<Registro> bloco, ConversorCsv conversor, Importacao importacao) {
+        var validas = new ArrayList<Mensagem>(bloco.size());
+        var linhas = new ArrayList<Long>(bloco.size());
+        for (Registro registro : bloco) {
+            Mensagem mensagem;
+            try {
+                mensagem = conversor == null
+                        ? objectMapper.readValue(registro.texto(), Mensagem.class)
+                        : conversor.converter(registro.texto());
+            } catch (JsonProcessingException e) {
+                importacao.rejeitar(registro.linha(), List.of("JSON inválido"));
+                continue;
+            } catch (IllegalArgumentException e) {
+                importacao.rejeitar(registro.linha(), List.of(e.getMessage()));
+                continue;
+            }
+            // uma linha "null" é JSON válido, mas não é uma mensagem
+            if (mensagem == null) {
+                importacao.rejeitar(registro.linha(), List.of("JSON inválido"));
+                continue;
+            }
+            var errors = validator.validate(mensagem).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            if (errors.isEmpty()) {
+                validas.add(mensagem);
+                linhas.add(registro.linha());
+            } else {
+                importacao.rejeitar(registro.linha(), errors);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+        try {
+            inserir(validas);
+            importacao.importadas.addAndGet(validas.size());
+        } catch (DataAccessException e) {
+            for (int i = 0; i < validas.size(); i++) {
+                try {
+                    inserir(validas.subList(i, i + 1));
+                    importacao.importadas.incrementAndGet();
+                } catch (DataAccessException erro) {
+                    importacao.rejeitar(linhas.get(i), List.of("mensagem não pôde ser gravada"));
+                }
+            }
+        }
+    }
+
+    private void inserir(List<Mensagem> mensagens) {
+        var sql = SQL_INSERIR + String.join(", ", Collections.nCopies(mensagens.size(), VALORES));
+        var argumentos = new Object[mensagens.size() * 5];
+        var agora = LocalDateTime.now();
+        var i = 0;
+        for (Mensagem mensagem : mensagens) {
+            var dataCriacao = mensagem.getDataCriacao() != null ? mensagem.getDataCriacao() : agora;
+            // os valores gravados ficam na mensagem para a indexação após o INSERT
+            mensagem.setId(GeradorUuid.gerar());
+            mensagem.setDataCriacao(dataCriacao);
+            argumentos[i++] = mensagem.getId();
+            argumentos[i++] = mensagem.getUsuario();
+            argumentos[i++] = mensagem.getConteudo();
+            argumentos[i++] = dataCriacao;
+            argumentos[i++] = dataCriacao;
+        }
+        jdbcTemplate.update(sql, argumentos);
+        indiceMensagens.indexar(mensagens);
+    }
+
+    private static Registro ler(BufferedReader leitor, Formato formato, long[] linha) throws IOException {
+        return formato == Formato.CSV ? lerRegistroCsv(leitor, linha) : lerLinha(leitor, linha);
+    }
+
+    private static Registro lerLinha(BufferedReader leitor, long[] linha) throws IOException {
+        var texto = leitor.readLine();
+        return texto == null ? null : new Registro(++linha[0], texto);
+    }
+
+    /**
+     * Lê um registro CSV, que ocupa mais de uma linha quando um campo entre aspas contém
+     * quebras de linha. O registro é identificado pela sua primeira linha.
+     */
+    private static Registro lerRegistroCsv(BufferedReader leitor, long[] linha) throws IOException {
+        var texto = leitor.readLine();
+        if (texto == null) {
+            return null;
+        }
+        var primeira = ++linha[0];
+        var aspas = contarAspas(texto);
+        if (aspas % 2 == 0) {
+            return new Registro(primeira, texto);
+        }
+        var registro = new StringBuilder(texto);
+        while (aspas % 2 != 0 && (texto = leitor.readLine()) != null) {
+            linha[0]++;
+            registro.append('\n').append(texto);
+            aspas += contarAspas(texto);
+        }
+        return new Registro(primeira, registro.toString());
+    }
+
+    private static int contarAspas(String texto) {
+        var aspas = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') {
+                aspas++;
+            }
+        }
+        return aspas;
+    }
+
+    /**
+     * Converte registros CSV (RFC 4180) pelo cabeçalho: {@code usuario} e {@code conteudo} são
+     * obrigatórios e {@code dataCriacao} é opcional; as demais colunas, como as geradas por
+     * {@code GET /mensagens/export}, são ignoradas.
+     */
+    private static final class ConversorCsv {
+
+        private final int usuario;
+        private final int conteudo;
+        private final int dataCriacao;
+
+        ConversorCsv(Registro cabecalho) {
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("arquivo CSV vazio");
+            }
+            Map<String, Integer> colunas = new HashMap<>();
+            var campos = campos(cabecalho.texto());
+            for (int i = 0; i < campos.size(); i++) {
+                colunas.putIfAbsent(campos.get(i).trim(), i);
+            }
+            if (!colunas.containsKey("usuario") || !colunas.containsKey("conteudo")) {
+                throw new IllegalArgumentException("cabeçalho CSV deve conter as colunas usuario e conteudo");
+            }
+            this.usuario = colunas.get("usuario");
+            this.conteudo = colunas.get("conteudo");
+            this.dataCriacao = colunas.getOrDefault("dataCriacao", -1);
+        }
+
+        Mensagem converter(String texto) {
+            var campos = campos(texto);
+            var mensagem = Mensagem.builder()
+                    .usuario(campo(campos, usuario))
+                    .conteudo(campo(campos, conteudo))
+                    .build();
+            var data = campo(campos, dataCriacao);
+            if (data != null && !data.isEmpty()) {
+                try {
+                    mensagem.setDataCriacao(LocalDateTime.parse(data));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("dataCriacao inválida");
+                }
+            }
+            return mensagem;
+        }
+
+        private static String campo(List<String> campos, int indice) {
+            return indice >= 0 && indice < campos.size() ? campos.get(indice) : null;
+        }
+
+        private static List<String> campos(String texto) {
+            var campos = new ArrayList<String>();
+            var campo = new StringBuilder();
+            var entreAspas = false;
+            for (int i = 0; i < texto.length(); i++) {
+                var c = texto.charAt(i);
+                if (entreAspas) {
+                    if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        entreAspas = false;
+                    } else {
+                        campo.append(c);
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(c);
+                }
+            }
+            if (entreAspas) {
+                throw new IllegalArgumentException("CSV inválido");
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+    }
+}
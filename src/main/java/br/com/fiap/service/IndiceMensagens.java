@@ -0,0 +1,319 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.model.Mensagem;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queries.function.FunctionScoreQuery;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.DoubleValues;
+import org.apache.lucene.search.DoubleValuesSource;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Índice invertido (Lucene, em memória) de {@code conteudo} e {@code usuario} para a busca
+ * textual, que de outra forma exigiria um {@code LIKE '%termo%'} percorrendo a tabela inteira.
+ * <p>
+ * O índice é reconstruído a partir do repositório na inicialização e mantido pelos
+ * {@link MensagemEvento} após o commit e pela importação em volume, que não gera eventos. As
+ * alterações ficam visíveis para a busca em até {@code mensagens.busca.atualizacao} ms, quando o
+ * leitor é reaberto. Os termos são normalizados sem maiúsculas nem acentos ("jose" encontra
+ * "José").
+ * <p>
+ * A relevância (BM25) é multiplicada por um bônus de recência que vai de 2, para uma mensagem
+ * recém-criada, a 1, caindo pela metade a cada {@code mensagens.busca.recencia}.
+ */
+@Slf4j
+@Component
+public class IndiceMensagens implements DisposableBean {
+
+    static final String ID = "id";
+    static final String CONTEUDO = "conteudo";
+    static final String USUARIO = "usuario";
+    static final String DATA_CRIACAO = "dataCriacao";
+    static final String GERACAO = "geracao";
+
+    private static final Map<String, Float> PESOS = Map.of(CONTEUDO, 1.0f, USUARIO, 0.5f);
+
+    private final MensagemService mensagemService;
+    private final Analyzer analisador = criarAnalisador();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final long recenciaMillis;
+    private final Executor reconstrucao;
+    private volatile long geracao;
+
+    @Autowired
+    public IndiceMensagens(
+            MensagemService mensagemService,
+            @Value("${mensagens.busca.recencia:7d}") Duration recencia) throws IOException {
+        this(mensagemService, recencia, criarThreadReconstrucao());
+    }
+
+    IndiceMensagens(MensagemService mensagemService, Duration recencia, Executor reconstrucao) throws IOException {
+        this.mensagemService = mensagemService;
+        this.recenciaMillis = recencia.toMillis();
+        this.reconstrucao = reconstrucao;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analisador));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Retorna os IDs das mensagens que contêm os termos de {@code texto}, da mais para a menos
+     * relevante. Aceita a sintaxe simples do Lucene: {@code "frase exata"}, {@code prefixo*},
+     * {@code -exclusão} e {@code a | b}; sem operador, todos os termos são obrigatórios.
+     */
+    public List<UUID> buscar(String texto, int quantidade) {
+        var parser = new SimpleQueryParser(analisador, PESOS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        var consulta = FunctionScoreQuery.boostByValue(
+                parser.parse(texto), new Recencia(System.currentTimeMillis(), recenciaMillis));
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                var documentos = searcher.search(consulta, quantidade).scoreDocs;
+                var campos = searcher.storedFields();
+                var ids = new ArrayList<UUID>(documentos.length);
+                for (ScoreDoc documento : documentos) {
+                    ids.add(UUID.fromString(campos.document(documento.doc, Set.of(ID)).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMensagemEvento(MensagemEvento evento) {
+        try {
+            switch (evento.tipo()) {
+                case CRIADA, ATUALIZADA -> indexar(evento.mensagem());
+                case REMOVIDA -> writer.deleteDocuments(new Term(ID, evento.id().toString()));
+                case GOSTEI -> {
+                    // o contador não faz parte do índice
+                }
+            }
+        } catch (IOException e) {
+            log.warn("falha ao atualizar o índice de busca da mensagem {}", evento.id(), e);
+        }
+    }
+
+    /**
+     * Indexa mensagens gravadas sem {@link MensagemEvento}, como as da importação em volume.
+     * Devem estar com ID e data de criação definitivos e já gravadas no banco de dados.
+     */
+    public void indexar(List<Mensagem> mensagens) {
+        try {
+            for (Mensagem mensagem : mensagens) {
+                indexar(mensagem);
+            }
+        } catch (IOException e) {
+            log.warn("falha ao indexar {} mensagens importadas", mensagens.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mensagens.busca.atualizacao:500}")
+    public void atualizarLeitor() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Reconstrói o índice sem atrasar a inicialização, em uma thread própria: a leitura de todas
+     * as mensagens é bloqueante e não deve ocupar o {@code ForkJoinPool} comum.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAoIniciar() {
+        reconstrucao.execute(() -> {
+            try {
+                var indexadas = reconstruir();
+                log.info("índice de busca reconstruído com {} mensagens", indexadas);
+            } catch (RuntimeException e) {
+                log.warn("falha ao reconstruir o índice de busca", e);
+            }
+        });
+    }
+
+    /**
+     * Reindexa todas as mensagens do repositório. Os documentos são substituídos um a um e os
+     * que não foram regravados (mensagens removidas fora da aplicação) são apagados ao final,
+     * de modo que as buscas feitas durante a reconstrução não veem um índice parcial.
+     */
+    public synchronized long reconstruir() {
+        var atual = ++geracao;
+        try {
+            var indexadas = mensagemService.exportarMensagens(mensagem -> {
+                try {
+                    indexar(mensagem);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.deleteDocuments(LongPoint.newRangeQuery(GERACAO, Long.MIN_VALUE, atual - 1));
+            searcherManager.maybeRefreshBlocking();
+            return indexadas;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private void indexar(Mensagem mensagem) throws IOException {
+        var id = mensagem.getId().toString();
+        var documento = new Document();
+        documento.add(new StringField(ID, id, Field.Store.YES));
+        documento.add(new TextField(CONTEUDO, Objects.toString(mensagem.getConteudo(), ""), Field.Store.NO));
+        documento.add(new TextField(USUARIO, Objects.toString(mensagem.getUsuario(), ""), Field.Store.NO));
+        documento.add(new NumericDocValuesField(DATA_CRIACAO, epochMillis(mensagem.getDataCriacao())));
+        documento.add(new LongPoint(GERACAO, geracao));
+        writer.updateDocument(new Term(ID, id), documento);
+    }
+
+    private static long epochMillis(LocalDateTime data) {
+        return data == null
+                ? System.currentTimeMillis()
+                : data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Executor criarThreadReconstrucao() {
+        return Executors.newSingleThreadExecutor(tarefa -> {
+            var thread = new Thread(tarefa, "indice-mensagens-reconstrucao");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Minúsculas e sem acentos, também nos prefixos ({@code normalize}).
+     */
+    private static Analyzer criarAnalisador() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+                var tokenizer = new StandardTokenizer();
+                return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+            }
+
+            @Override
+            protected TokenStream normalize(String campo, TokenStream entrada) {
+                return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+            }
+        };
+    }
+
+    /**
+     * Bônus de recência: {@code 1 + 0,5^(idade / recencia)}, ou seja, 2 para uma mensagem
+     * recém-criada, 1,5 com uma {@code recencia} de idade, 1,25 com duas, tendendo a 1.
+     */
+    static double bonusRecencia(long idade, double recencia) {
+        return 1 + Math.pow(0.5, Math.max(0, idade) / recencia);
+    }
+
+    /**
+     * Fonte de valores com o {@link #bonusRecencia} de cada documento.
+     */
+    private static final class Recencia extends DoubleValuesSource {
+
+        private final long agora;
+        private final double recencia;
+
+        Recencia(long agora, long recencia) {
+            this.agora = agora;
+            this.recencia = recencia;
+        }
+
+        @Override
+        public DoubleValues getValues(LeafReaderContext contexto, DoubleValues scores) throws IOException {
+            var datas = DocValues.getNumeric(contexto.reader(), DATA_CRIACAO);
+            return new DoubleValues() {
+                @Override
+                public double doubleValue() throws IOException {
+                    return bonusRecencia(agora - datas.longValue(), recencia);
+                }
+
+                @Override
+                public boolean advanceExact(int documento) throws IOException {
+                    return datas.advanceExact(documento);
+                }
+            };
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+
+        @Override
+        public DoubleValuesSource rewrite(IndexSearcher searcher) {
+            return this;
+        }
+
+        @Override
+        public boolean isCacheable(LeafReaderContext contexto) {
+            return DocValues.isCacheable(contexto, DATA_CRIACAO);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Recencia outra && outra.agora == agora && outra.recencia == recencia;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(agora, recencia);
+        }
+
+        @Override
+        public String toString() {
+            return "recencia(" + DATA_CRIACAO + ")";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.model.Mensagem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache local das mensagens consultadas por ID, limitado por tamanho e por tempo de vida.
+ * <p>
+ * IDs inexistentes também são armazenados (cache negativo), por um tempo menor, para que
+ * consultas repetidas a IDs desconhecidos não cheguem ao banco de dados. As entradas são
+ * invalidadas pelos {@link MensagemEvento} após o commit da alteração.
+ * <p>
+ * As mensagens são copiadas na entrada e na saída do cache, pois a entidade é mutável.
+ * <p>
+ * Cada invalidação incrementa a geração do ID (contadores distribuídos por hash, para não
+ * crescer com a quantidade de IDs), e uma consulta ao banco iniciada antes dela não é
+ * armazenada: sem isso, a cópia lida antes do commit de uma alteração seria gravada no cache
+ * depois da invalidação e ficaria desatualizada até expirar.
+ */
+@Component
+public class MensagemCache {
+
+    private static final int GERACOES = 1024;
+
+    private final Cache<UUID, Mensagem> mensagens;
+    private final Cache<UUID, Boolean> ausentes;
+    private final AtomicLongArray geracoes = new AtomicLongArray(GERACOES);
+
+    public MensagemCache(
+            @Value("${mensagens.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${mensagens.cache.ttl:60s}") Duration ttl,
+            @Value("${mensagens.cache.ttl-ausentes:5s}") Duration ttlAusentes,
+            MeterRegistry meterRegistry) {
+        this.mensagens = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ausentes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttlAusentes)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, mensagens, "mensagens");
+        CaffeineCacheMetrics.monitor(meterRegistry, ausentes, "mensagens.ausentes");
+    }
+
+    public Optional<Mensagem> obter(UUID id, Function<UUID, Optional<Mensagem>> carregar) {
+        var mensagem = mensagens.getIfPresent(id);
+        if (mensagem != null) {
+            return Optional.of(copiar(mensagem));
+        }
+        if (ausentes.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        var geracao = geracoes.get(indice(id));
+        var carregada = carregar.apply(id);
+        // o compute bloqueia a chave: uma invalidação concorrente ou já incrementou a geração,
+        // e a entrada não é gravada, ou espera a gravação terminar para removê-la
+        carregada.ifPresentOrElse(
+                m -> mensagens.asMap().compute(id, (chave, atual) -> valida(id, geracao) ? copiar(m) : atual),
+                () -> ausentes.asMap().compute(id, (chave, atual) -> valida(id, geracao) ? Boolean.TRUE : atual));
+        return carregada;
+    }
+
+    public void invalidar(UUID id) {
+        geracoes.incrementAndGet(indice(id));
+        mensagens.invalidate(id);
+        ausentes.invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMensagemEvento(MensagemEvento evento) {
+        invalidar(evento.id());
+    }
+
+    private boolean valida(UUID id, long geracao) {
+        return geracoes.get(indice(id)) == geracao;
+    }
+
+    private static int indice(UUID id) {
+        return Math.floorMod(id.hashCode(), GERACOES);
+    }
+
+    private static Mensagem copiar(Mensagem mensagem) {
+        return mensagem.toBuilder().build();
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.fiap.service;
+
+import br.com.fiap.model.Mensagem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição na timeline usada pela paginação por cursor, composta pela chave de ordenação
+ * (dataCriacao, id). É trafegada para o cliente como um token opaco em Base64.
+ */
+public record MensagemCursor(LocalDateTime dataCriacao, UUID id) {
+
+    private static final String SEPARADOR = "|";
+
+    public static MensagemCursor de(Mensagem mensagem) {
+        return new MensagemCursor(mensagem.getDataCriacao(), mensagem.getId());
+    }
+
+    public String codificar() {
+        var valor = dataCriacao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MensagemCursor decodificar(String token) {
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("cursor inválido");
+            }
+            return new MensagemCursor(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    UUID.fromString(valor.substring(separador + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("cursor inválido", e);
+        }
+    }
+}
@@ -1,20 +1,55 @@
 package br.com.fiap.service;
 
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.MensagemResumo;
 import br.com.fiap.model.Mensagem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface MensagemService {
 
     Mensagem registrarMensagem(Mensagem mensagem);
 
+    List<Mensagem> registrarMensagens(List<Mensagem> mensagens);
+
     Mensagem obterMensagem(UUID id);
 
     Mensagem atualizarMensagem(UUID id, Mensagem mensagemNova);
 
+    /**
+     * Atualiza o conteúdo somente se a mensagem ainda estiver na {@code versaoEsperada}; com
+     * {@code null}, atualiza em qualquer versão.
+     */
+    Mensagem atualizarMensagem(UUID id, Mensagem mensagemNova, Long versaoEsperada);
+
     boolean removerMensagem(UUID id);
 
-    Page<Mensagem> obterMensagens(Pageable pageable);
+    /**
+     * Remove as mensagens existentes entre os IDs informados e retorna os IDs removidos.
+     */
+    List<UUID> removerMensagens(Collection<UUID> ids);
+
+    Mensagem gostarMensagem(UUID id, String usuario);
+
+    Page<MensagemResumo> obterMensagens(Pageable pageable);
+
+    CursorPage<Mensagem> obterMensagens(String cursor, int size);
+
+    CursorPage<Mensagem> obterMensagensDoUsuario(String usuario, String cursor, int size);
+
+    /**
+     * Retorna as mensagens na ordem dos IDs informados, omitindo as que não existem mais.
+     */
+    List<Mensagem> obterMensagens(List<UUID> ids);
+
+    /**
+     * Entrega todas as mensagens ao {@code destino}, uma a uma, sem carregá-las juntas em
+     * memória. Retorna a quantidade de mensagens exportadas.
+     */
+    long exportarMensagens(Consumer<Mensagem> destino);
 }
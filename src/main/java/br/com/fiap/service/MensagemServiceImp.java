@@ -1,55 +1,246 @@
 package br.com.fiap.service;
 
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.exception.GosteiDuplicadoException;
 import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.exception.VersaoConflitanteException;
 import br.com.fiap.model.Mensagem;
 import br.com.fiap.repository.MensagemRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class MensagemServiceImp implements MensagemService {
 
+    static final String TIMER = "mensagens.servico";
+
     private final MensagemRepository mensagemRepository;
+    private final ContadorGostei contadorGostei;
+    private final RemocaoMensagens remocaoMensagens;
+    private final MensagemCache mensagemCache;
+    private final TimelineCache timelineCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
+    @Timed(value = TIMER, histogram = true)
     public Mensagem registrarMensagem(Mensagem mensagem) {
-        mensagem.setId(UUID.randomUUID());
-        return mensagemRepository.save(mensagem);
+        mensagem.setId(GeradorUuid.gerar());
+        var mensagemRegistrada = mensagemRepository.save(mensagem);
+        eventPublisher.publishEvent(MensagemEvento.criada(mensagemRegistrada));
+        return mensagemRegistrada;
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
+    public List<Mensagem> registrarMensagens(List<Mensagem> mensagens) {
+        mensagens.forEach(mensagem -> mensagem.setId(GeradorUuid.gerar()));
+        var mensagensRegistradas = mensagemRepository.saveAll(mensagens);
+        mensagensRegistradas.forEach(mensagem ->
+                eventPublisher.publishEvent(MensagemEvento.criada(mensagem)));
+        return mensagensRegistradas;
     }
 
     @Override
+    @Timed(value = TIMER, histogram = true)
     public Mensagem obterMensagem(UUID id) {
-        return mensagemRepository.findById(id)
-                .orElseThrow(() -> new MensagemNotFoundException("mensagem não encontrada"));
+        return somarGosteiPendentes(buscarMensagem(id));
+    }
+
+    private Mensagem somarGosteiPendentes(Mensagem mensagem) {
+        var pendentes = contadorGostei.pendentes(mensagem.getId());
+        if (pendentes == 0) {
+            return mensagem;
+        }
+        // cópia para não alterar a entidade gerenciada com os "gostei" ainda não gravados
+        return mensagem.toBuilder()
+                .gostei(mensagem.getGostei() + (int) pendentes)
+                .build();
     }
 
     @Override
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
     public Mensagem atualizarMensagem(UUID id, Mensagem mensagemAtualizada) {
-        var mensagem = obterMensagem(id);
-        if (!mensagem.getId().equals(mensagemAtualizada.getId())) {
+        return atualizarMensagem(id, mensagemAtualizada, null);
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
+    public Mensagem atualizarMensagem(UUID id, Mensagem mensagemAtualizada, Long versaoEsperada) {
+        if (!id.equals(mensagemAtualizada.getId())) {
             throw new MensagemNotFoundException("mensagem não apresenta o ID correto");
         }
-        mensagem.setDataAlteracao(LocalDateTime.now());
-        mensagem.setConteudo(mensagemAtualizada.getConteudo());
-        return mensagemRepository.save(mensagem);
+        // como no clearAutomatically dos @Modifying: uma instância já carregada nesta transação
+        // seria devolvida no lugar da linha atualizada
+        entityManager.flush();
+        entityManager.clear();
+        var mensagem = mensagemRepository.atualizarConteudo(
+                        id, mensagemAtualizada.getConteudo(), LocalDateTime.now(), versaoEsperada)
+                // apenas no caminho de falha: distingue a mensagem inexistente da alterada
+                .orElseThrow(() -> mensagemRepository.existsById(id)
+                        ? new VersaoConflitanteException("mensagem alterada por outra requisição")
+                        : new MensagemNotFoundException("mensagem não encontrada"));
+        eventPublisher.publishEvent(MensagemEvento.atualizada(mensagem));
+        return somarGosteiPendentes(mensagem);
     }
 
     @Override
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
     public boolean removerMensagem(UUID id) {
-        var mensagem = obterMensagem(id);
-        mensagemRepository.delete(mensagem);
+        if (!remocaoMensagens.remover(id)) {
+            throw new MensagemNotFoundException("mensagem não encontrada");
+        }
+        eventPublisher.publishEvent(MensagemEvento.removida(id));
         return true;
     }
 
     @Override
-    public Page<Mensagem> obterMensagens(Pageable pageable) {
-        return mensagemRepository.obterMensagens(pageable);
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
+    public List<UUID> removerMensagens(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var removidas = remocaoMensagens.remover(ids);
+        removidas.forEach(id -> eventPublisher.publishEvent(MensagemEvento.removida(id)));
+        return removidas;
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
+    public Mensagem gostarMensagem(UUID id, String usuario) {
+        try {
+            if (mensagemRepository.registrarGostei(id, usuario) == 0) {
+                throw new MensagemNotFoundException("mensagem não encontrada");
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new GosteiDuplicadoException("usuário já gostou da mensagem");
+        }
+        // o incremento é feito por último para manter o lock da linha pelo menor tempo possível
+        contadorGostei.incrementar(id);
+        // lê direto do repositório: o cache só é invalidado após o commit desta transação
+        var mensagem = somarGosteiPendentes(mensagemRepository.findById(id)
+                .orElseThrow(() -> new MensagemNotFoundException("mensagem não encontrada")));
+        eventPublisher.publishEvent(MensagemEvento.gostei(mensagem));
+        return mensagem;
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    public Page<MensagemResumo> obterMensagens(Pageable pageable) {
+        return timelineCache.obterPagina(pageable)
+                .map(pagina -> pagina.map(MensagemResumo::de))
+                .orElseGet(() -> mensagemRepository.obterResumos(pageable));
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    public CursorPage<Mensagem> obterMensagens(String cursor, int size) {
+        validarTamanho(size);
+        // busca um registro a mais para saber se existe próxima página sem executar COUNT(*)
+        var pageable = PageRequest.of(0, size + 1);
+        List<Mensagem> mensagens;
+        if (cursor == null || cursor.isBlank()) {
+            mensagens = timelineCache.obterRecentes(size + 1)
+                    .orElseGet(() -> mensagemRepository.obterMensagensIniciais(pageable));
+        } else {
+            var posicao = MensagemCursor.decodificar(cursor);
+            mensagens = mensagemRepository.obterMensagensApos(posicao.dataCriacao(), posicao.id(), pageable);
+        }
+        return paginar(mensagens, size);
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    public CursorPage<Mensagem> obterMensagensDoUsuario(String usuario, String cursor, int size) {
+        validarTamanho(size);
+        var pageable = PageRequest.of(0, size + 1);
+        List<Mensagem> mensagens;
+        if (cursor == null || cursor.isBlank()) {
+            mensagens = mensagemRepository.obterMensagensDoUsuario(usuario, pageable);
+        } else {
+            var posicao = MensagemCursor.decodificar(cursor);
+            mensagens = mensagemRepository.obterMensagensDoUsuarioApos(
+                    usuario, posicao.dataCriacao(), posicao.id(), pageable);
+        }
+        return paginar(mensagens, size);
+    }
+
+    private static void validarTamanho(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("tamanho de página inválido");
+        }
+    }
+
+    private static CursorPage<Mensagem> paginar(List<Mensagem> mensagens, int size) {
+        if (mensagens.size() <= size) {
+            return new CursorPage<>(mensagens, null);
+        }
+        var pagina = mensagens.subList(0, size);
+        var proximo = MensagemCursor.de(pagina.get(size - 1)).codificar();
+        return new CursorPage<>(pagina, proximo);
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    public List<Mensagem> obterMensagens(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var encontradas = new HashMap<UUID, Mensagem>(ids.size() * 2);
+        mensagemRepository.findAllById(ids).forEach(mensagem -> encontradas.put(mensagem.getId(), mensagem));
+        return ids.stream()
+                .map(encontradas::get)
+                .filter(Objects::nonNull)
+                .map(this::somarGosteiPendentes)
+                .toList();
+    }
+
+    @Override
+    @Timed(value = TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public long exportarMensagens(Consumer<Mensagem> destino) {
+        long exportadas = 0;
+        try (var mensagens = mensagemRepository.exportarMensagens()) {
+            var iterator = mensagens.iterator();
+            while (iterator.hasNext()) {
+                var mensagem = iterator.next();
+                destino.accept(somarGosteiPendentes(mensagem));
+                // libera a entidade do contexto de persistência: a memória não cresce com a tabela
+                entityManager.detach(mensagem);
+                exportadas++;
+            }
+        }
+        return exportadas;
+    }
+
+    private Mensagem buscarMensagem(UUID id) {
+        return mensagemCache.obter(id, mensagemRepository::findById)
+                .orElseThrow(() -> new MensagemNotFoundException("mensagem não encontrada"));
     }
 
 }
@@ -0,0 +1,33 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.model.Mensagem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Contrato de {@link MensagemService} para a variante reativa da API. As falhas são
+ * sinalizadas pelo {@code Mono} com as mesmas exceções da versão bloqueante.
+ */
+public interface MensagemServiceReativo {
+
+    Mono<Mensagem> registrarMensagem(Mensagem mensagem);
+
+    Mono<Mensagem> obterMensagem(UUID id);
+
+    Mono<Mensagem> atualizarMensagem(UUID id, Mensagem mensagemNova);
+
+    Mono<Boolean> removerMensagem(UUID id);
+
+    Mono<Mensagem> gostarMensagem(UUID id, String usuario);
+
+    Mono<Page<MensagemResumo>> obterMensagens(Pageable pageable);
+
+    Mono<CursorPage<Mensagem>> obterMensagens(String cursor, int size);
+
+    Mono<CursorPage<Mensagem>> obterMensagensDoUsuario(String usuario, String cursor, int size);
+}
@@ -0,0 +1,149 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.exception.GosteiDuplicadoException;
+import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.repository.MensagemReativoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MensagemServiceReativoImp implements MensagemServiceReativo {
+
+    private final MensagemReativoRepository mensagemRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Mono<Mensagem> registrarMensagem(Mensagem mensagem) {
+        var timestamp = agora();
+        mensagem.setId(GeradorUuid.gerar());
+        mensagem.setGostei(0);
+        mensagem.setVersao(0L);
+        mensagem.setDataCriacao(timestamp);
+        mensagem.setDataAlteracao(timestamp);
+        return mensagemRepository.inserir(mensagem)
+                .doOnNext(registrada -> eventPublisher.publishEvent(MensagemEvento.criada(registrada)));
+    }
+
+    @Override
+    public Mono<Mensagem> obterMensagem(UUID id) {
+        return mensagemRepository.buscar(id)
+                .switchIfEmpty(Mono.error(() -> new MensagemNotFoundException("mensagem não encontrada")));
+    }
+
+    @Override
+    public Mono<Mensagem> atualizarMensagem(UUID id, Mensagem mensagemAtualizada) {
+        return obterMensagem(id)
+                .flatMap(mensagem -> {
+                    if (!mensagem.getId().equals(mensagemAtualizada.getId())) {
+                        return Mono.error(new MensagemNotFoundException("mensagem não apresenta o ID correto"));
+                    }
+                    mensagem.setDataAlteracao(agora());
+                    mensagem.setConteudo(mensagemAtualizada.getConteudo());
+                    return mensagemRepository.atualizarConteudo(mensagem);
+                })
+                // removida entre a leitura e o UPDATE
+                .flatMap(atualizadas -> atualizadas == 0
+                        ? Mono.<Mensagem>error(new MensagemNotFoundException("mensagem não encontrada"))
+                        : mensagemRepository.buscar(id))
+                // a releitura na mesma transação retorna a versão gravada por este UPDATE
+                .as(transactionalOperator::transactional)
+                .doOnNext(mensagem -> eventPublisher.publishEvent(MensagemEvento.atualizada(mensagem)));
+    }
+
+    @Override
+    public Mono<Boolean> removerMensagem(UUID id) {
+        return mensagemRepository.remover(id)
+                .flatMap(removidas -> removidas == 0
+                        ? Mono.error(new MensagemNotFoundException("mensagem não encontrada"))
+                        : Mono.just(true))
+                .doOnNext(removida -> eventPublisher.publishEvent(MensagemEvento.removida(id)));
+    }
+
+    @Override
+    public Mono<Mensagem> gostarMensagem(UUID id, String usuario) {
+        return mensagemRepository.registrarGostei(id, usuario)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new GosteiDuplicadoException("usuário já gostou da mensagem"))
+                .flatMap(registrados -> registrados == 0
+                        ? Mono.error(new MensagemNotFoundException("mensagem não encontrada"))
+                        : mensagemRepository.incrementarGostei(id))
+                .then(mensagemRepository.buscar(id))
+                .as(transactionalOperator::transactional)
+                // publicado após o commit, como os @TransactionalEventListener esperam
+                .doOnNext(mensagem -> eventPublisher.publishEvent(MensagemEvento.gostei(mensagem)));
+    }
+
+    @Override
+    public Mono<Page<MensagemResumo>> obterMensagens(Pageable pageable) {
+        return Mono.zip(mensagemRepository.obterMensagens(pageable).map(MensagemResumo::de).collectList(),
+                        mensagemRepository.contar())
+                .map(resultado -> new PageImpl<>(resultado.getT1(), pageable, resultado.getT2()));
+    }
+
+    @Override
+    public Mono<CursorPage<Mensagem>> obterMensagens(String cursor, int size) {
+        if (size < 1) {
+            return Mono.error(new IllegalArgumentException("tamanho de página inválido"));
+        }
+        // busca um registro a mais para saber se existe próxima página sem executar COUNT(*)
+        var mensagens = cursor == null || cursor.isBlank()
+                ? mensagemRepository.obterMensagens(PageRequest.of(0, size + 1))
+                : Mono.fromCallable(() -> MensagemCursor.decodificar(cursor))
+                        .flatMapMany(posicao -> mensagemRepository.obterMensagensApos(
+                                posicao.dataCriacao(), posicao.id(), size + 1));
+        return paginar(mensagens, size);
+    }
+
+    @Override
+    public Mono<CursorPage<Mensagem>> obterMensagensDoUsuario(String usuario, String cursor, int size) {
+        if (size < 1) {
+            return Mono.error(new IllegalArgumentException("tamanho de página inválido"));
+        }
+        var mensagens = cursor == null || cursor.isBlank()
+                ? mensagemRepository.obterMensagensDoUsuario(usuario, size + 1)
+                : Mono.fromCallable(() -> MensagemCursor.decodificar(cursor))
+                        .flatMapMany(posicao -> mensagemRepository.obterMensagensDoUsuarioApos(
+                                usuario, posicao.dataCriacao(), posicao.id(), size + 1));
+        return paginar(mensagens, size);
+    }
+
+    private static Mono<CursorPage<Mensagem>> paginar(Flux<Mensagem> mensagens, int size) {
+        return mensagens.collectList()
+                .map(lista -> {
+                    if (lista.size() <= size) {
+                        return new CursorPage<>(lista, null);
+                    }
+                    var pagina = lista.subList(0, size);
+                    return new CursorPage<>(pagina, MensagemCursor.de(pagina.get(size - 1)).codificar());
+                });
+    }
+
+    /**
+     * Mesma precisão da coluna TIMESTAMP(6), para que o valor retornado seja igual ao gravado
+     * e possa ser usado nos cursores.
+     */
+    private static LocalDateTime agora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
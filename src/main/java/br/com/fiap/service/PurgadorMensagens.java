@@ -0,0 +1,113 @@
+package br.com.fiap.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Apaga as mensagens removidas logicamente ({@link RemocaoLogica}), das mais antigas para as
+ * mais recentes, em blocos de {@code mensagens.remocao.purga.tamanho-bloco} mensagens. Cada
+ * bloco é um único DELETE, com a sua própria transação, e o próximo só é executado após
+ * {@code mensagens.remocao.purga.pausa} milissegundos: os locks e a manutenção dos índices
+ * ficam limitados a poucas linhas de cada vez. Os blocos só são apagados na janela entre
+ * {@code inicio} e {@code fim} (que pode atravessar a meia-noite); com os dois horários
+ * iguais a purga é contínua.
+ * <p>
+ * Publica {@code mensagens.remocao.pendentes}, {@code mensagens.remocao.atraso} (idade da
+ * remoção mais antiga ainda não apagada) e {@code mensagens.remocao.purgadas}. As duas
+ * primeiras são atualizadas a cada ciclo, inclusive fora da janela.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mensagens.remocao.logica.enabled", havingValue = "true")
+public class PurgadorMensagens {
+
+    private static final String SQL_PURGAR = "DELETE FROM mensagem WHERE id IN ("
+            + "SELECT mensagem_id FROM mensagem_remocao ORDER BY data_remocao LIMIT ?)";
+    private static final String SQL_PENDENTES = "SELECT COUNT(*) FROM mensagem_remocao";
+    private static final String SQL_MAIS_ANTIGA = "SELECT MIN(data_remocao) FROM mensagem_remocao";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoBloco;
+    private final LocalTime inicio;
+    private final LocalTime fim;
+
+    private final Counter purgadas;
+    private final AtomicLong pendentes = new AtomicLong();
+    private volatile LocalDateTime maisAntiga;
+
+    public PurgadorMensagens(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${mensagens.remocao.purga.tamanho-bloco:100}") int tamanhoBloco,
+            @Value("${mensagens.remocao.purga.inicio:02:00}") String inicio,
+            @Value("${mensagens.remocao.purga.fim:06:00}") String fim) {
+        if (tamanhoBloco < 1) {
+            throw new IllegalArgumentException("tamanho de bloco inválido");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoBloco = tamanhoBloco;
+        this.inicio = LocalTime.parse(inicio);
+        this.fim = LocalTime.parse(fim);
+        purgadas = Counter.builder("mensagens.remocao.purgadas")
+                .description("Mensagens removidas logicamente e já apagadas da tabela")
+                .register(meterRegistry);
+        Gauge.builder("mensagens.remocao.pendentes", pendentes, AtomicLong::get)
+                .description("Mensagens removidas logicamente aguardando a purga")
+                .register(meterRegistry);
+        TimeGauge.builder("mensagens.remocao.atraso", this, TimeUnit.MILLISECONDS, PurgadorMensagens::atraso)
+                .description("Tempo desde a remoção mais antiga ainda não apagada")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apaga um bloco, quando dentro da janela, e retorna a quantidade de mensagens apagadas.
+     * Nunca espera dentro do ciclo: o scheduler padrão tem uma única thread, compartilhada com
+     * as demais tarefas da aplicação.
+     */
+    @Scheduled(fixedDelayString = "${mensagens.remocao.purga.pausa:1000}",
+            initialDelayString = "${mensagens.remocao.purga.pausa:1000}")
+    public int purgar() {
+        int apagadas = 0;
+        try {
+            if (dentroDaJanela(LocalTime.now(), inicio, fim)) {
+                apagadas = jdbcTemplate.update(SQL_PURGAR, tamanhoBloco);
+                purgadas.increment(apagadas);
+            }
+            pendentes.set(jdbcTemplate.queryForObject(SQL_PENDENTES, Long.class));
+            maisAntiga = jdbcTemplate.queryForObject(SQL_MAIS_ANTIGA, LocalDateTime.class);
+        } catch (RuntimeException e) {
+            log.warn("falha ao apagar as mensagens removidas, nova tentativa no próximo ciclo", e);
+        }
+        return apagadas;
+    }
+
+    static boolean dentroDaJanela(LocalTime agora, LocalTime inicio, LocalTime fim) {
+        if (inicio.equals(fim)) {
+            return true;
+        }
+        if (inicio.isBefore(fim)) {
+            return !agora.isBefore(inicio) && agora.isBefore(fim);
+        }
+        // janela que atravessa a meia-noite, por exemplo das 22:00 às 06:00
+        return !agora.isBefore(inicio) || agora.isBefore(fim);
+    }
+
+    private double atraso() {
+        var remocao = maisAntiga;
+        return remocao == null ? 0 : Math.max(0, Duration.between(remocao, LocalDateTime.now()).toMillis());
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.fiap.service;
+
+import br.com.fiap.repository.MensagemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Apaga as mensagens imediatamente, na mesma transação da requisição.
+ */
+@Component
+@ConditionalOnProperty(name = "mensagens.remocao.logica.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RemocaoFisica implements RemocaoMensagens {
+
+    private final MensagemRepository mensagemRepository;
+
+    @Override
+    public boolean remover(UUID id) {
+        return mensagemRepository.removerMensagem(id) > 0;
+    }
+
+    @Override
+    public List<UUID> remover(Collection<UUID> ids) {
+        return mensagemRepository.removerMensagens(ids).stream()
+                .map(UUID::fromString)
+                .toList();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.fiap.service;
+
+import br.com.fiap.repository.MensagemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Apenas marca as mensagens como removidas: a requisição altera uma coluna sem índice e insere
+ * na fila de remoção, sem apagar a linha nem mexer nos índices da tabela {@code mensagem} nem
+ * nos "gostei". As mensagens são apagadas depois pelo {@link PurgadorMensagens}, em blocos e
+ * fora do horário de pico.
+ */
+@Component
+@ConditionalOnProperty(name = "mensagens.remocao.logica.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RemocaoLogica implements RemocaoMensagens {
+
+    private final MensagemRepository mensagemRepository;
+
+    @Override
+    public boolean remover(UUID id) {
+        return mensagemRepository.removerMensagemLogicamente(id, LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    public List<UUID> remover(Collection<UUID> ids) {
+        return mensagemRepository.removerMensagensLogicamente(ids, LocalDateTime.now()).stream()
+                .map(UUID::fromString)
+                .toList();
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Estratégia de remoção de mensagens.
+ */
+public interface RemocaoMensagens {
+
+    /**
+     * Retorna {@code false} quando a mensagem não existe.
+     */
+    boolean remover(UUID id);
+
+    /**
+     * Retorna os IDs das mensagens que existiam e foram removidas.
+     */
+    List<UUID> remover(Collection<UUID> ids);
+}
@@ -0,0 +1,246 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.repository.MensagemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantém em memória as {@code mensagens.timeline.cache.tamanho} mensagens mais recentes, que
+ * atendem às primeiras páginas da timeline sem acessar o banco de dados.
+ * <p>
+ * A janela é uma lista imutável, substituída a cada alteração (copy-on-write): as leituras
+ * não usam lock e as escritas, feitas após o commit a partir dos {@link MensagemEvento},
+ * inserem a nova mensagem no início e descartam a mais antiga. Páginas que ultrapassam a
+ * janela continuam sendo consultadas no repositório.
+ * <p>
+ * Alterações feitas fora desta instância (outros servidores, scripts SQL) não geram eventos;
+ * por isso a janela é recarregada em segundo plano quando fica mais velha que
+ * {@code mensagens.timeline.cache.ttl}, sem bloquear as leituras. A recarga usa uma thread
+ * própria, e não o {@code ForkJoinPool} comum, pois a consulta ao banco de dados é bloqueante.
+ */
+@Slf4j
+@Component
+public class TimelineCache {
+
+    static final Comparator<Mensagem> ORDEM_TIMELINE = Comparator
+            .comparing(Mensagem::getDataCriacao)
+            .thenComparing(Mensagem::getId, TimelineCache::compararUuid)
+            .reversed();
+
+    private final MensagemRepository mensagemRepository;
+    private final boolean habilitado;
+    private final int tamanho;
+    private final long ttlNanos;
+    private final Executor recarga;
+
+    private final AtomicBoolean recarregando = new AtomicBoolean();
+    private volatile Janela janela;
+    private long versao;
+
+    private record Janela(List<Mensagem> mensagens, long total, long carregadaEm) {
+
+        boolean completa() {
+            return mensagens.size() >= total;
+        }
+
+        boolean atende(long quantidade) {
+            return quantidade <= mensagens.size() || completa();
+        }
+    }
+
+    @Autowired
+    public TimelineCache(
+            MensagemRepository mensagemRepository,
+            @Value("${mensagens.timeline.cache.enabled:true}") boolean habilitado,
+            @Value("${mensagens.timeline.cache.tamanho:100}") int tamanho,
+            @Value("${mensagens.timeline.cache.ttl:1s}") Duration ttl) {
+        this(mensagemRepository, habilitado, tamanho, ttl, criarThreadRecarga());
+    }
+
+    TimelineCache(MensagemRepository mensagemRepository, boolean habilitado, int tamanho, Duration ttl,
+                  Executor recarga) {
+        this.mensagemRepository = mensagemRepository;
+        this.habilitado = habilitado;
+        this.tamanho = tamanho;
+        this.ttlNanos = ttl.toNanos();
+        this.recarga = recarga;
+    }
+
+    public Optional<Page<Mensagem>> obterPagina(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Optional.empty();
+        }
+        var atual = janela();
+        var fim = pageable.getOffset() + pageable.getPageSize();
+        if (atual == null || !atual.atende(fim)) {
+            return Optional.empty();
+        }
+        var mensagens = atual.mensagens();
+        var inicio = (int) Math.min(pageable.getOffset(), mensagens.size());
+        var conteudo = mensagens.subList(inicio, (int) Math.min(fim, mensagens.size()));
+        return Optional.of(new PageImpl<>(conteudo, pageable, atual.total()));
+    }
+
+    /**
+     * Retorna as {@code quantidade} mensagens mais recentes, ou todas se existirem menos,
+     * quando a janela em memória for suficiente para responder.
+     */
+    public Optional<List<Mensagem>> obterRecentes(int quantidade) {
+        var atual = janela();
+        if (atual == null || !atual.atende(quantidade)) {
+            return Optional.empty();
+        }
+        var mensagens = atual.mensagens();
+        return Optional.of(mensagens.subList(0, Math.min(quantidade, mensagens.size())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMensagemEvento(MensagemEvento evento) {
+        versao++;
+        var atual = janela;
+        if (atual == null) {
+            return;
+        }
+        var mensagens = new ArrayList<>(atual.mensagens());
+        var posicao = posicao(mensagens, evento.id());
+        var total = atual.total();
+        switch (evento.tipo()) {
+            case CRIADA -> {
+                if (posicao >= 0) {
+                    return;
+                }
+                var nova = evento.mensagem().toBuilder().build();
+                var indice = -(Collections.binarySearch(mensagens, nova, ORDEM_TIMELINE) + 1);
+                if (indice >= tamanho) {
+                    janela = new Janela(atual.mensagens(), total + 1, atual.carregadaEm());
+                    return;
+                }
+                mensagens.add(indice, nova);
+                if (mensagens.size() > tamanho) {
+                    mensagens.remove(mensagens.size() - 1);
+                }
+                total++;
+            }
+            case ATUALIZADA, GOSTEI -> {
+                if (posicao < 0) {
+                    return;
+                }
+                mensagens.set(posicao, evento.mensagem().toBuilder().build());
+            }
+            case REMOVIDA -> {
+                if (posicao < 0) {
+                    if (!atual.completa()) {
+                        // removida além de uma janela parcial: o total só é conhecido na recarga
+                        janela = new Janela(atual.mensagens(), atual.total(), expirada(atual));
+                    }
+                    return;
+                }
+                // a remoção vale na próxima leitura, mesmo com a recarga pendente
+                mensagens.remove(posicao);
+                total--;
+                if (mensagens.size() <= tamanho / 2 && mensagens.size() < total) {
+                    // janela parcial pequena demais: completa com a recarga
+                    janela = new Janela(List.copyOf(mensagens), total, expirada(atual));
+                    return;
+                }
+            }
+        }
+        janela = new Janela(List.copyOf(mensagens), total, atual.carregadaEm());
+    }
+
+    private long expirada(Janela janela) {
+        return janela.carregadaEm() - ttlNanos - 1;
+    }
+
+    private Janela janela() {
+        if (!habilitado) {
+            return null;
+        }
+        var atual = janela;
+        if (atual == null) {
+            return carregar();
+        }
+        if (System.nanoTime() - atual.carregadaEm() > ttlNanos
+                && recarregando.compareAndSet(false, true)) {
+            recarga.execute(() -> {
+                try {
+                    carregar();
+                } catch (RuntimeException e) {
+                    log.warn("falha ao recarregar a timeline em memória", e);
+                } finally {
+                    recarregando.set(false);
+                }
+            });
+        }
+        return atual;
+    }
+
+    /**
+     * Consulta o repositório fora do lock. Se algum evento chegar durante a consulta, o
+     * resultado é descartado, pois pode não refletir o evento.
+     */
+    private Janela carregar() {
+        long versaoInicial;
+        synchronized (this) {
+            versaoInicial = versao;
+        }
+        var pagina = mensagemRepository.obterMensagens(PageRequest.of(0, tamanho));
+        var carregada = new Janela(
+                List.copyOf(pagina.getContent()), pagina.getTotalElements(), System.nanoTime());
+        synchronized (this) {
+            if (versao != versaoInicial) {
+                return janela;
+            }
+            janela = carregada;
+            return carregada;
+        }
+    }
+
+    private static ExecutorService criarThreadRecarga() {
+        return Executors.newSingleThreadExecutor(tarefa -> {
+            var thread = new Thread(tarefa, "timeline-cache-recarga");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static int posicao(List<Mensagem> mensagens, UUID id) {
+        for (int i = 0; i < mensagens.size(); i++) {
+            if (mensagens.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compara os UUIDs sem sinal, como o banco de dados, para manter a mesma ordem da consulta.
+     */
+    private static int compararUuid(UUID a, UUID b) {
+        var comparacao = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return comparacao != 0
+                ? comparacao
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,240 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribui os {@link MensagemEvento} aos clientes conectados em {@code GET /mensagens/stream}
+ * (Server-Sent Events), após o commit da alteração.
+ * <p>
+ * O ouvinte do evento nunca escreve na conexão: cada assinante tem uma fila limitada a
+ * {@code mensagens.stream.buffer} eventos, esvaziada pelas threads de envio. O assinante cuja
+ * fila enche (cliente lento) ou cujo envio está bloqueado há mais de
+ * {@code mensagens.stream.timeout-envio} (conexão travada) é desconectado, e o cliente SSE
+ * reconecta sozinho; assim um consumidor lento não atrasa o serviço nem os demais assinantes, e
+ * a memória por conexão fica limitada.
+ * <p>
+ * O {@code send()} do {@link SseEmitter} bloqueia enquanto a conexão não aceita os dados, até o
+ * timeout de escrita do servidor. Por isso o pool de envio mantém apenas
+ * {@code mensagens.stream.threads-envio} threads ociosas e cria outras quando todas estão
+ * ocupadas: um envio travado prende só a thread do seu assinante (no máximo uma por assinante),
+ * nunca as dos demais.
+ * <p>
+ * Um comentário de heartbeat é enviado a cada {@code mensagens.stream.heartbeat} ms para manter
+ * a conexão aberta em proxies e detectar clientes que já desconectaram.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TimelineStream {
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger conectados = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Executor envio;
+    private final int tamanhoBuffer;
+    private final int maximoAssinantes;
+    private final long timeoutMillis;
+    private final long timeoutEnvioNanos;
+    private final Counter descartados;
+
+    @Autowired
+    public TimelineStream(
+            @Value("${mensagens.stream.buffer:256}") int tamanhoBuffer,
+            @Value("${mensagens.stream.maximo-assinantes:5000}") int maximoAssinantes,
+            @Value("${mensagens.stream.timeout:30m}") Duration timeout,
+            @Value("${mensagens.stream.threads-envio:4}") int threadsEnvio,
+            @Value("${mensagens.stream.timeout-envio:10s}") Duration timeoutEnvio,
+            MeterRegistry meterRegistry) {
+        this(tamanhoBuffer, maximoAssinantes, timeout, timeoutEnvio, criarPoolEnvio(threadsEnvio), meterRegistry);
+    }
+
+    TimelineStream(int tamanhoBuffer, int maximoAssinantes, Duration timeout, Duration timeoutEnvio,
+                   Executor envio, MeterRegistry meterRegistry) {
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.maximoAssinantes = maximoAssinantes;
+        this.timeoutMillis = timeout.toMillis();
+        this.timeoutEnvioNanos = timeoutEnvio.toNanos();
+        this.envio = envio;
+        this.descartados = Counter.builder("mensagens.stream.descartados")
+                .description("assinantes desconectados por não acompanharem os eventos")
+                .register(meterRegistry);
+        meterRegistry.gauge("mensagens.stream.assinantes", conectados);
+    }
+
+    /**
+     * Registra um novo assinante, ou retorna vazio se o limite de conexões foi atingido.
+     */
+    public Optional<SseEmitter> assinar() {
+        return assinar(new SseEmitter(timeoutMillis));
+    }
+
+    Optional<SseEmitter> assinar(SseEmitter emitter) {
+        if (conectados.incrementAndGet() > maximoAssinantes) {
+            conectados.decrementAndGet();
+            return Optional.empty();
+        }
+        var assinante = new Assinante(emitter);
+        assinantes.add(assinante);
+        emitter.onCompletion(assinante::encerrar);
+        emitter.onTimeout(assinante::encerrar);
+        emitter.onError(e -> assinante.encerrar());
+        // envia os cabeçalhos imediatamente, antes do primeiro evento
+        assinante.enfileirar(SseEmitter.event().comment("conectado"));
+        return Optional.of(emitter);
+    }
+
+    public int assinantes() {
+        return conectados.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMensagemEvento(MensagemEvento evento) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+        Object dados = evento.mensagem() != null ? evento.mensagem() : Map.of("id", evento.id());
+        var id = String.valueOf(sequencia.incrementAndGet());
+        var nome = evento.tipo().name().toLowerCase();
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(SseEmitter.event()
+                    .id(id)
+                    .name(nome)
+                    .data(dados, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${mensagens.stream.heartbeat:15000}")
+    public void enviarHeartbeat() {
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    /**
+     * Encerra as conexões antes do desligamento do servidor, que do contrário aguardaria as
+     * conexões abertas até o fim do prazo de desligamento gracioso.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void encerrarAssinantes() {
+        for (Assinante assinante : assinantes) {
+            assinante.desconectar();
+        }
+    }
+
+    static ExecutorService criarPoolEnvio(int threads) {
+        var contador = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                tarefa -> {
+                    var thread = new Thread(tarefa, "timeline-stream-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private final class Assinante implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> fila;
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private final AtomicBoolean encerrado = new AtomicBoolean();
+        private volatile long envioIniciadoEm;
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(tamanhoBuffer);
+        }
+
+        void enfileirar(SseEmitter.SseEventBuilder evento) {
+            if (encerrado.get()) {
+                return;
+            }
+            if (!fila.offer(evento) || travado()) {
+                descartados.increment();
+                desconectar();
+                return;
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (agendado.compareAndSet(false, true)) {
+                envio.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while (!encerrado.get() && (evento = fila.poll()) != null) {
+                    envioIniciadoEm = System.nanoTime();
+                    emitter.send(evento);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("falha ao enviar evento ao assinante", e);
+                encerrar();
+            } finally {
+                envioIniciadoEm = 0;
+                agendado.set(false);
+            }
+            if (!fila.isEmpty() && !encerrado.get()) {
+                agendar();
+            }
+        }
+
+        private boolean travado() {
+            var inicio = envioIniciadoEm;
+            return inicio != 0 && System.nanoTime() - inicio > timeoutEnvioNanos;
+        }
+
+        /**
+         * Completa a resposta na thread de envio: {@code complete()} aguarda um {@code send()}
+         * em andamento, e quem desconecta pode ser a thread que publicou o evento.
+         */
+        void desconectar() {
+            if (encerrar()) {
+                envio.execute(emitter::complete);
+            }
+        }
+
+        boolean encerrar() {
+            if (!encerrado.compareAndSet(false, true)) {
+                return false;
+            }
+            assinantes.remove(this);
+            conectados.decrementAndGet();
+            fila.clear();
+            return true;
+        }
+    }
+}
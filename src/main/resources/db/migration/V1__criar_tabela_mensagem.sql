@@ -0,0 +1,15 @@
+CREATE TABLE mensagem
+(
+    id             UUID         NOT NULL,
+    usuario        VARCHAR(255),
+    conteudo       VARCHAR(255),
+    gostei         INTEGER      NOT NULL DEFAULT 0,
+    data_criacao   TIMESTAMP(6),
+    data_alteracao TIMESTAMP(6),
+    CONSTRAINT pk_mensagem PRIMARY KEY (id)
+);
+
+-- timeline: ORDER BY data_criacao DESC, id DESC vira uma varredura ordenada do índice
+CREATE INDEX idx_mensagem_timeline ON mensagem (data_criacao DESC, id DESC);
+
+CREATE INDEX idx_mensagem_usuario ON mensagem (usuario);
@@ -0,0 +1,9 @@
+-- um registro por usuário e mensagem: a chave primária garante que cada usuário gosta uma única vez
+CREATE TABLE mensagem_gostei
+(
+    mensagem_id  UUID         NOT NULL,
+    usuario      VARCHAR(255) NOT NULL,
+    data_criacao TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_mensagem_gostei PRIMARY KEY (mensagem_id, usuario),
+    CONSTRAINT fk_mensagem_gostei_mensagem FOREIGN KEY (mensagem_id) REFERENCES mensagem (id) ON DELETE CASCADE
+);
@@ -0,0 +1,6 @@
+-- timeline por usuário: WHERE usuario = ? ORDER BY data_criacao DESC, id DESC vira uma varredura
+-- ordenada de um trecho do índice, com custo proporcional à página e não ao total de mensagens
+CREATE INDEX idx_mensagem_usuario_timeline ON mensagem (usuario, data_criacao DESC, id DESC);
+
+-- o novo índice também atende às consultas apenas por usuário
+DROP INDEX idx_mensagem_usuario;
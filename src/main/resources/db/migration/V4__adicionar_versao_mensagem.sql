@@ -0,0 +1,3 @@
+-- controle de concorrência otimista: incrementada a cada edição do conteúdo, mas não pelos
+-- "gostei", que alteram apenas a coluna gostei e não conflitam com uma edição
+ALTER TABLE mensagem ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
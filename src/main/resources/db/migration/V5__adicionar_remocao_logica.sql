@@ -0,0 +1,17 @@
+-- remoção lógica (mensagens.remocao.logica.enabled): a mensagem deixa de ser exibida ao receber
+-- data_remocao e é apagada depois, em blocos, pelo PurgadorMensagens. A coluna não é indexada:
+-- com um índice em data_remocao o H2 o escolheria para o filtro "data_remocao IS NULL" no lugar
+-- dos índices da timeline, e as páginas deixariam de ser lidas já ordenadas
+ALTER TABLE mensagem ADD COLUMN data_remocao TIMESTAMP(6);
+
+-- fila das mensagens a apagar, na ordem da remoção; cada linha sai da fila pelo ON DELETE CASCADE
+-- quando a mensagem é apagada
+CREATE TABLE mensagem_remocao
+(
+    mensagem_id  UUID         NOT NULL,
+    data_remocao TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_mensagem_remocao PRIMARY KEY (mensagem_id),
+    CONSTRAINT fk_mensagem_remocao_mensagem FOREIGN KEY (mensagem_id) REFERENCES mensagem (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_mensagem_remocao_data ON mensagem_remocao (data_remocao);
@@ -0,0 +1,208 @@
+package br.com.fiap.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+/**
+ * Verifica o orçamento de latência do RNF01 (100 ms para publicar e visualizar mensagens)
+ * sob uma carga mista de publicações, consultas por ID e listagens.
+ * <p>
+ * A carga segue um modelo aberto: as requisições são disparadas na taxa configurada,
+ * independentemente das respostas, e a latência é medida a partir do instante em que cada
+ * requisição deveria ter saído. Assim, filas formadas por um servidor lento aparecem nos
+ * percentis em vez de reduzir a carga (coordinated omission).
+ * <p>
+ * Executado apenas no perfil {@code carga}:
+ * <pre>
+ * mvn test -Pcarga [-Dcarga.rps=100] [-Dcarga.duracao=30s] [-Dcarga.orcamento=100ms]
+ * </pre>
+ * As distribuições completas ficam em {@code target/carga/*.hgrm}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.root=WARN", "mensagens.limite.enabled=false"})
+class MensagemCargaTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+    private static final String CORPO = """
+            {"usuario":"carga","conteudo":"mensagem publicada pelo teste de carga"}""";
+
+    private enum Operacao { PUBLICAR, VISUALIZAR, LISTAR }
+
+    @LocalServerPort
+    private int port;
+
+    private final int rps = Integer.getInteger("carga.rps", 100);
+    private final Duration aquecimento = duracao("carga.aquecimento", "5s");
+    private final Duration duracao = duracao("carga.duracao", "20s");
+    private final Duration orcamento = duracao("carga.orcamento", "100ms");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<String> ids = new ArrayList<>();
+    private final AtomicLong erros = new AtomicLong();
+
+    @BeforeEach
+    void setup() throws IOException, InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var resposta = client.send(publicar(), HttpResponse.BodyHandlers.ofString());
+            var matcher = ID.matcher(resposta.body());
+            assertThat(matcher.find()).as("id da mensagem publicada").isTrue();
+            ids.add(matcher.group(1));
+        }
+    }
+
+    @Test
+    void deveAtenderOrcamentoDeLatencia_SobCargaMista() throws IOException {
+        executar(aquecimento, null);
+        var recorders = new EnumMap<Operacao, Recorder>(Operacao.class);
+        for (var operacao : Operacao.values()) {
+            recorders.put(operacao, new Recorder(TimeUnit.SECONDS.toNanos(60), 3));
+        }
+        erros.set(0);
+        executar(duracao, recorders);
+
+        var histogramas = new EnumMap<Operacao, Histogram>(Operacao.class);
+        recorders.forEach((operacao, recorder) ->
+                histogramas.put(operacao, recorder.getIntervalHistogram()));
+        relatar(histogramas);
+
+        var limite = orcamento.toNanos();
+        assertSoftly(softly -> {
+            softly.assertThat(erros).as("requisições com erro").hasValue(0);
+            histogramas.forEach((operacao, histograma) -> softly
+                    .assertThat(histograma.getValueAtPercentile(99.0))
+                    .as("p99 de %s (ns)", operacao)
+                    .isLessThanOrEqualTo(limite));
+        });
+    }
+
+    /**
+     * Dispara as requisições na taxa configurada durante o período informado e aguarda as
+     * respostas pendentes. Sem recorders, apenas aquece a aplicação.
+     */
+    private void executar(Duration periodo, Map<Operacao, Recorder> recorders) {
+        var intervalo = TimeUnit.SECONDS.toNanos(1) / rps;
+        var total = periodo.toSeconds() * rps;
+        var pendentes = new ArrayList<CompletableFuture<?>>((int) total);
+        var inicio = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            var previsto = inicio + i * intervalo;
+            var espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            var operacao = sortear(i);
+            pendentes.add(client.sendAsync(requisicao(operacao, i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        var latencia = System.nanoTime() - previsto;
+                        if (erro != null || resposta.statusCode() >= 400) {
+                            erros.incrementAndGet();
+                        }
+                        if (recorders != null) {
+                            recorders.get(operacao).recordValue(latencia);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(pendentes.toArray(CompletableFuture[]::new))
+                .orTimeout(1, TimeUnit.MINUTES)
+                .exceptionally(e -> null)
+                .join();
+    }
+
+    /**
+     * 20% publicações, 50% consultas por ID e 30% listagens.
+     */
+    private static Operacao sortear(long sequencia) {
+        var faixa = sequencia % 10;
+        if (faixa < 2) {
+            return Operacao.PUBLICAR;
+        }
+        return faixa < 7 ? Operacao.VISUALIZAR : Operacao.LISTAR;
+    }
+
+    private HttpRequest requisicao(Operacao operacao, long sequencia) {
+        return switch (operacao) {
+            case PUBLICAR -> publicar();
+            case VISUALIZAR -> get("/mensagens/" + ids.get((int) (sequencia % ids.size())));
+            case LISTAR -> get("/mensagens?page=0&size=10");
+        };
+    }
+
+    private HttpRequest publicar() {
+        return HttpRequest.newBuilder(uri("/mensagens"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(CORPO))
+                .build();
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(uri(caminho)).GET().build();
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + port + caminho);
+    }
+
+    private void relatar(Map<Operacao, Histogram> histogramas) throws IOException {
+        var diretorio = Files.createDirectories(Path.of("target", "carga"));
+        System.out.printf("%nCarga: %d req/s durante %s, orçamento p99 %d ms%n",
+                rps, duracao, orcamento.toMillis());
+        System.out.printf("%-11s %8s %8s %8s %8s %8s%n", "operação", "total", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (var entrada : histogramas.entrySet()) {
+            var histograma = entrada.getValue();
+            System.out.printf("%-11s %8d %8.2f %8.2f %8.2f %8.2f%n",
+                    entrada.getKey(), histograma.getTotalCount(),
+                    milis(histograma.getValueAtPercentile(50.0)),
+                    milis(histograma.getValueAtPercentile(99.0)),
+                    milis(histograma.getValueAtPercentile(99.9)),
+                    milis(histograma.getMaxValue()));
+            var arquivo = diretorio.resolve(entrada.getKey().name().toLowerCase() + ".hgrm");
+            try (var saida = new PrintStream(Files.newOutputStream(arquivo))) {
+                histograma.outputPercentileDistribution(saida, 1_000_000.0);
+            }
+        }
+    }
+
+    private static double milis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Duration duracao(String propriedade, String padrao) {
+        var valor = System.getProperty(propriedade, padrao).trim().toLowerCase();
+        if (valor.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(valor.substring(0, valor.length() - 2)));
+        }
+        if (valor.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(valor.substring(0, valor.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(valor));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.service.IndiceMensagens;
+import br.com.fiap.service.MensagemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MensagemBuscaControllerTest extends MensagemHelper {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private IndiceMensagens indiceMensagens;
+
+    @Mock
+    private MensagemService mensagemService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new MensagemBuscaController(indiceMensagens, mensagemService))
+                .addFilter((request, response, chain) -> {
+                    response.setCharacterEncoding("UTF-8");
+                    chain.doFilter(request, response);
+                }, "/*")
+                .build();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirBuscarMensagens() throws Exception {
+        var mensagem = gerarMensagemCompleta();
+        when(indiceMensagens.buscar("reuniao", 5)).thenReturn(List.of(mensagem.getId()));
+        when(mensagemService.obterMensagens(List.of(mensagem.getId()))).thenReturn(List.of(mensagem));
+
+        mockMvc.perform(get("/mensagens/search?q=reuniao&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(mensagem.getId().toString()));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoTamanhoInvalido() throws Exception {
+        mockMvc.perform(get("/mensagens/search?q=reuniao&size=101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("tamanho de página inválido"));
+        verify(indiceMensagens, never()).buscar(anyString(), anyInt());
+    }
+}
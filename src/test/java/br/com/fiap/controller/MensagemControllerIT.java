@@ -1,22 +1,38 @@
 package br.com.fiap.controller;
 
+import br.com.fiap.dto.GosteiRequest;
 import br.com.fiap.helper.MensagemHelper;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.when;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.hasKey;
 
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// os scripts SQL alteram a tabela sem passar pela aplicação: a timeline em memória ficaria defasada;
+// o limite de requisições por IP é verificado em LimiteTaxaIT
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"mensagens.timeline.cache.enabled=false", "mensagens.limite.enabled=false"})
 @Sql(scripts = {"/db_load.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 public class MensagemControllerIT extends MensagemHelper{
@@ -66,4 +82,285 @@ public class MensagemControllerIT extends MensagemHelper{
             .body("conteudo", equalTo("mensagem de José"));
 
     }
+
+    @Test
+    void deveRetornarNaoModificado_AteMensagemReceberGostei() {
+        var id = "5f789b39-4295-42c1-a65b-cfca5b987db2";
+        String etag = when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract().header(HttpHeaders.ETAG);
+
+        given()
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+        .when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id);
+
+        given()
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+        .when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.ETAG, not(equalTo(etag)))
+            .body("gostei", equalTo(1));
+    }
+
+    @Test
+    void deveRecusarAlteracao_QuandoIfMatchDeVersaoAnterior() {
+        var id = "5f789b39-4295-42c1-a65b-cfca5b987db2";
+        String etag = when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract().header(HttpHeaders.ETAG);
+        var mensagem = gerarMensagem();
+        mensagem.setId(UUID.fromString(id));
+
+        // um "gostei" depois da leitura não conflita com a edição do conteúdo
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id);
+
+        String novaEtag = given()
+            .header(HttpHeaders.IF_MATCH, etag)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagem)
+        .when()
+            .put("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("gostei", equalTo(1))
+            .body("versao", equalTo(1))
+            .extract().header(HttpHeaders.ETAG);
+
+        given()
+            .header(HttpHeaders.IF_MATCH, etag)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagem)
+        .when()
+            .put("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+
+        given()
+            .header(HttpHeaders.IF_MATCH, novaEtag)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagem)
+        .when()
+            .put("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    void devePermitirListarMensagensPorCursor() {
+        String proximo = given()
+            .queryParam("cursor", "")
+            .queryParam("size", 2)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(2))
+            .extract().path("next");
+
+        given()
+            .queryParam("cursor", proximo)
+            .queryParam("size", 2)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .body("next", nullValue());
+    }
+
+    @Test
+    void devePermitirListarMensagensDoUsuario() {
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(gerarMensagem().toBuilder().usuario("Maria").build())
+        .when()
+            .post("/mensagens");
+
+        String proximo = given()
+            .queryParam("usuario", "Maria")
+            .queryParam("size", 1)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .body("content[0].usuario", equalTo("Maria"))
+            .body("content[0].conteudo", not(equalTo("mensagem de Maria")))
+            .extract().path("next");
+
+        given()
+            .queryParam("usuario", "Maria")
+            .queryParam("cursor", proximo)
+            .queryParam("size", 1)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .body("content[0].conteudo", equalTo("mensagem de Maria"))
+            .body("next", nullValue());
+    }
+
+    @Test
+    void devePermitirGostarMensagemUmaVezPorUsuario() {
+        var id = "5f789b39-4295-42c1-a65b-cfca5b987db2";
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("gostei", equalTo(1));
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id)
+        .then()
+            .statusCode(HttpStatus.CONFLICT.value());
+    }
+
+    @Test
+    void deveContabilizarTodosOsGostei_QuandoRecebidosEmParalelo() throws Exception {
+        var id = "592ac344-9f12-40cd-8ed9-1fde6ad9006e";
+        var usuarios = 50;
+        var executor = Executors.newFixedThreadPool(10);
+        try {
+            IntStream.range(0, usuarios).forEach(i -> executor.submit(() ->
+                given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(new GosteiRequest("usuario-" + i))
+                .when()
+                    .post("/mensagens/{id}/gostei", id)
+                .then()
+                    .statusCode(HttpStatus.OK.value())));
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("gostei", equalTo(usuarios));
+    }
+
+    @Test
+    void devePermitirBuscarMensagens() throws Exception {
+        var mensagem = gerarMensagem();
+        mensagem.setConteudo("lançamento da versão 2.0");
+        String id = given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagem)
+        .when()
+            .post("/mensagens")
+        .then()
+            .statusCode(HttpStatus.CREATED.value())
+            .extract().path("id");
+
+        // o índice é atualizado de forma assíncrona
+        List<String> encontradas = List.of();
+        for (int tentativa = 0; tentativa < 50 && encontradas.isEmpty(); tentativa++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+            encontradas = given()
+                .queryParam("q", "lancamento versao")
+            .when()
+                .get("/mensagens/search")
+            .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().path("id");
+        }
+        assertThat(encontradas).containsExactly(id);
+
+        given()
+            .queryParam("q", " ")
+        .when()
+            .get("/mensagens/search")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void devePermitirExportarMensagens() {
+        String corpo = given()
+            .queryParam("formato", "ndjson")
+        .when()
+            .get("/mensagens/export")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .contentType(MensagemLoteController.APPLICATION_NDJSON_VALUE)
+            .extract().asString();
+
+        assertThat(corpo.split("\n"))
+                .hasSize(3)
+                .allSatisfy(linha -> assertThat(linha).startsWith("{\"id\":"));
+    }
+
+    @Test
+    void devePermitirRegistrarMensagensEmLote() {
+        var invalida = gerarMensagem();
+        invalida.setConteudo("");
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(List.of(gerarMensagem(), invalida, gerarMensagem()))
+        .when()
+            .post("/mensagens/batch")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("registradas", equalTo(2))
+            .body("rejeitadas", equalTo(1))
+            .body("itens.status", hasItems(201, 400));
+
+        when()
+            .get("/mensagens")
+        .then()
+            .body("totalElements", equalTo(5));
+    }
+
+    @Test
+    void devePermitirRemoverMensagensEmLote() {
+        var inexistente = UUID.randomUUID().toString();
+
+        given()
+            .queryParam("ids", "5f789b39-4295-42c1-a65b-cfca5b987db2,65b1bbee-c784-4457-be6d-d00b0be5c9e0," + inexistente)
+        .when()
+            .delete("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("removidas", equalTo(2))
+            .body("naoEncontradas", equalTo(List.of(inexistente)));
+
+        when()
+            .get("/mensagens/{id}", "5f789b39-4295-42c1-a65b-cfca5b987db2")
+        .then()
+            .statusCode(HttpStatus.NOT_FOUND.value());
+        when()
+            .get("/mensagens")
+        .then()
+            .body("totalElements", equalTo(1));
+    }
 }
@@ -1,12 +1,19 @@
 package br.com.fiap.controller;
 
+import br.com.fiap.dto.CursorPage;
+import br.com.fiap.dto.GosteiRequest;
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.exception.GosteiDuplicadoException;
 import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.exception.VersaoConflitanteException;
 import br.com.fiap.handler.GlobalExceptionHandler;
 import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.metrics.MensagemMetricas;
 import br.com.fiap.model.Mensagem;
 import br.com.fiap.service.MensagemService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -16,17 +23,27 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -36,6 +53,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -46,14 +64,18 @@ public class MensagemControllerTest extends MensagemHelper {
     @Mock
     private MensagemService mensagemService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     AutoCloseable mock;
 
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        MensagemController mensagemController = new MensagemController(mensagemService);
+        meterRegistry = new SimpleMeterRegistry();
+        var mensagemMetricas = new MensagemMetricas(meterRegistry);
+        MensagemController mensagemController = new MensagemController(mensagemService, mensagemMetricas);
         mockMvc = MockMvcBuilders.standaloneSetup(mensagemController)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(mensagemMetricas))
                 .addFilter((request, response, chain) -> {
                     response.setCharacterEncoding("UTF-8");
                     chain.doFilter(request, response);
@@ -96,6 +118,8 @@ public class MensagemControllerTest extends MensagemHelper {
                     .andExpect(jsonPath("$.errors.[0]").value("usuário não pode estar vazio"));
             verify(mensagemService, never())
                     .registrarMensagem(any(Mensagem.class));
+            assertThat(meterRegistry.get("mensagens.validacao.falhas").tag("origem", "requisicao")
+                    .counter().count()).isEqualTo(1);
         }
 
         @Test
@@ -145,6 +169,27 @@ public class MensagemControllerTest extends MensagemHelper {
             verify(mensagemService, times(1)).obterMensagem(any(UUID.class));
         }
 
+        @Test
+        void deveRetornarNaoModificado_QuandoEtagNaoMudar() throws Exception {
+            var mensagem = gerarMensagemCompleta();
+            when(mensagemService.obterMensagem(any(UUID.class))).thenReturn(mensagem);
+            var etag = mockMvc.perform(get("/mensagens/{id}", mensagem.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/mensagens/{id}", mensagem.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mensagem.setGostei(mensagem.getGostei() + 1);
+            mockMvc.perform(get("/mensagens/{id}", mensagem.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.gostei").value(mensagem.getGostei()));
+        }
+
         @Test
         void deveGerarExcecaoAoObterMensagemComIdNaoExistente() throws Exception {
             // Arrange
@@ -157,6 +202,7 @@ public class MensagemControllerTest extends MensagemHelper {
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isNotFound());
             verify(mensagemService, times(1)).obterMensagem(any(UUID.class));
+            assertThat(meterRegistry.get("mensagens.nao.encontradas").counter().count()).isEqualTo(1);
 
         }
 
@@ -182,7 +228,7 @@ public class MensagemControllerTest extends MensagemHelper {
             var mensagemRequest = gerarMensagem();
             mensagemRequest.setId(id);
 
-            when(mensagemService.atualizarMensagem(any(UUID.class), any(Mensagem.class)))
+            when(mensagemService.atualizarMensagem(any(UUID.class), any(Mensagem.class), any()))
                     .thenAnswer(i -> i.getArgument(1));
 
             mockMvc.perform(put("/mensagens/{id}", id)
@@ -195,7 +241,54 @@ public class MensagemControllerTest extends MensagemHelper {
                     .andExpect(jsonPath("$.dataCriacao").value(mensagemRequest.getDataCriacao()))
                     .andExpect(jsonPath("$.gostei").value(mensagemRequest.getGostei()));
             verify(mensagemService, times(1))
-                    .atualizarMensagem(any(UUID.class), any(Mensagem.class));
+                    .atualizarMensagem(any(UUID.class), any(Mensagem.class), any());
+        }
+
+        @Test
+        void devePermitirAlterarMensagem_NaVersaoDoIfMatch() throws Exception {
+            var id = UUID.randomUUID();
+            var mensagemRequest = gerarMensagem();
+            mensagemRequest.setId(id);
+            when(mensagemService.atualizarMensagem(eq(id), any(Mensagem.class), eq(3L)))
+                    .thenReturn(mensagemRequest.toBuilder().versao(4L).build());
+
+            mockMvc.perform(put("/mensagens/{id}", id)
+                            .header(HttpHeaders.IF_MATCH, "\"" + id + "-3-7\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagemRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-4-0\""))
+                    .andExpect(jsonPath("$.versao").value(4));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_VersaoConflitante() throws Exception {
+            var id = UUID.randomUUID();
+            var mensagemRequest = gerarMensagem();
+            mensagemRequest.setId(id);
+            when(mensagemService.atualizarMensagem(eq(id), any(Mensagem.class), eq(3L)))
+                    .thenThrow(new VersaoConflitanteException("mensagem alterada por outra requisição"));
+
+            mockMvc.perform(put("/mensagens/{id}", id)
+                            .header(HttpHeaders.IF_MATCH, "\"" + id + "-3-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagemRequest)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("mensagem alterada por outra requisição"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_IfMatchDeOutraMensagem() throws Exception {
+            var mensagemRequest = gerarMensagem();
+            mensagemRequest.setId(UUID.randomUUID());
+
+            mockMvc.perform(put("/mensagens/{id}", mensagemRequest.getId())
+                            .header(HttpHeaders.IF_MATCH, "\"" + UUID.randomUUID() + "-3-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagemRequest)))
+                    .andExpect(status().isPreconditionFailed());
+            verify(mensagemService, never())
+                    .atualizarMensagem(any(UUID.class), any(Mensagem.class), any());
         }
 
         @Test
@@ -204,7 +297,7 @@ public class MensagemControllerTest extends MensagemHelper {
             var mensagemRequest = gerarMensagem();
             mensagemRequest.setId(UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120003"));
 
-            when(mensagemService.atualizarMensagem(any(UUID.class), any(Mensagem.class)))
+            when(mensagemService.atualizarMensagem(any(UUID.class), any(Mensagem.class), any()))
                     .thenThrow(new MensagemNotFoundException("mensagem não apresenta o ID correto"));
 
             mockMvc.perform(put("/mensagens/{id}", id)
@@ -212,7 +305,7 @@ public class MensagemControllerTest extends MensagemHelper {
                             .content(asJsonString(mensagemRequest)))
                     .andExpect(status().isNotFound())
                     .andExpect(content().string("mensagem não apresenta o ID correto"));
-            verify(mensagemService, times(1)).atualizarMensagem(any(UUID.class), any(Mensagem.class));
+            verify(mensagemService, times(1)).atualizarMensagem(any(UUID.class), any(Mensagem.class), any());
         }
 
         @Test
@@ -226,7 +319,7 @@ public class MensagemControllerTest extends MensagemHelper {
                     .andExpect(status().isBadRequest())
                     .andExpect(content().string("ID inválido"));
             verify(mensagemService, never())
-                    .atualizarMensagem(any(UUID.class), any(Mensagem.class));
+                    .atualizarMensagem(any(UUID.class), any(Mensagem.class), any());
         }
 
         @Test
@@ -238,7 +331,7 @@ public class MensagemControllerTest extends MensagemHelper {
                             .contentType(MediaType.APPLICATION_XML)
                             .content(xmlPayload))
                     .andExpect(status().isUnsupportedMediaType());
-            verify(mensagemService, never()).atualizarMensagem(any(UUID.class), any(Mensagem.class));
+            verify(mensagemService, never()).atualizarMensagem(any(UUID.class), any(Mensagem.class), any());
         }
     }
 
@@ -287,16 +380,108 @@ public class MensagemControllerTest extends MensagemHelper {
                     .removerMensagem(any(UUID.class));
         }
 
+        @Test
+        void devePermitirRemoverMensagensEmLote() throws Exception {
+            var removida = UUID.randomUUID();
+            var inexistente = UUID.randomUUID();
+            when(mensagemService.removerMensagens(anyCollection()))
+                    .thenReturn(List.of(removida));
+
+            mockMvc.perform(delete("/mensagens")
+                            .param("ids", removida + "," + inexistente))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.removidas").value(1))
+                    .andExpect(jsonPath("$.naoEncontradas[0]").value(inexistente.toString()));
+            verify(mensagemService, times(1))
+                    .removerMensagens(new LinkedHashSet<>(List.of(removida, inexistente)));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverMensagensEmLote_IdInvalido() throws Exception {
+            mockMvc.perform(delete("/mensagens")
+                            .param("ids", UUID.randomUUID() + ",2"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("ID inválido"));
+            verify(mensagemService, never()).removerMensagens(anyCollection());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverMensagensEmLote_AcimaDoLimite() throws Exception {
+            var ids = IntStream.range(0, MensagemController.REMOCAO_MAXIMA + 1)
+                    .mapToObj(i -> UUID.randomUUID().toString())
+                    .toArray(String[]::new);
+
+            mockMvc.perform(delete("/mensagens")
+                            .param("ids", ids))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("quantidade de IDs inválida"));
+            verify(mensagemService, never()).removerMensagens(anyCollection());
+        }
+
     }
 
 
+    @Nested
+    class GostarMensagem {
+
+        @Test
+        void devePermitirGostarMensagem() throws Exception {
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            mensagem.setGostei(1);
+            when(mensagemService.gostarMensagem(any(UUID.class), anyString()))
+                    .thenReturn(mensagem);
+
+            mockMvc.perform(post("/mensagens/{id}/gostei", mensagem.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(new GosteiRequest("Maria"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(mensagem.getId().toString()))
+                    .andExpect(jsonPath("$.gostei").value(1));
+            verify(mensagemService, times(1)).gostarMensagem(mensagem.getId(), "Maria");
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoGostarMensagem_UsuarioEmBranco() throws Exception {
+            mockMvc.perform(post("/mensagens/{id}/gostei", UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(new GosteiRequest(""))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.[0]").value("usuário não pode estar vazio"));
+            verify(mensagemService, never()).gostarMensagem(any(UUID.class), anyString());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoGostarMensagem_IdNaoExistente() throws Exception {
+            when(mensagemService.gostarMensagem(any(UUID.class), anyString()))
+                    .thenThrow(new MensagemNotFoundException("mensagem não encontrada"));
+
+            mockMvc.perform(post("/mensagens/{id}/gostei", UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(new GosteiRequest("Maria"))))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().string("mensagem não encontrada"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoUsuarioJaGostouDaMensagem() throws Exception {
+            when(mensagemService.gostarMensagem(any(UUID.class), anyString()))
+                    .thenThrow(new GosteiDuplicadoException("usuário já gostou da mensagem"));
+
+            mockMvc.perform(post("/mensagens/{id}/gostei", UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(new GosteiRequest("Maria"))))
+                    .andExpect(status().isConflict())
+                    .andExpect(content().string("usuário já gostou da mensagem"));
+        }
+    }
+
     @Nested
     class ObterMensagens {
 
         @Test
         void devePermitirListarMensagens() throws Exception {
-            var mensagem = MensagemHelper.gerarMensagemCompleta();
-            Page<Mensagem> page = new PageImpl<>(Collections.singletonList(
+            var mensagem = MensagemResumo.de(MensagemHelper.gerarMensagemCompleta());
+            Page<MensagemResumo> page = new PageImpl<>(Collections.singletonList(
                     mensagem
             ));
             when(mensagemService.obterMensagens(any(Pageable.class)))
@@ -308,15 +493,40 @@ public class MensagemControllerTest extends MensagemHelper {
                     .andExpect(jsonPath("$.content[0].conteudo").value(mensagem.getConteudo()))
                     .andExpect(jsonPath("$.content[0].usuario").value(mensagem.getUsuario()))
                     .andExpect(jsonPath("$.content[0].dataCriacao").exists())
-                    .andExpect(jsonPath("$.content[0].gostei").exists());
+                    .andExpect(jsonPath("$.content[0].gostei").exists())
+                    .andExpect(jsonPath("$.content[0].versao").doesNotExist())
+                    .andExpect(jsonPath("$.totalElements").value(1))
+                    .andExpect(jsonPath("$.totalPages").value(1))
+                    .andExpect(jsonPath("$.pageable").doesNotExist())
+                    .andExpect(jsonPath("$.sort").doesNotExist());
             verify(mensagemService, times(1))
                     .obterMensagens(any(Pageable.class));
         }
 
+        @Test
+        void deveRetornarNaoModificado_QuandoPaginaNaoMudar() throws Exception {
+            var mensagens = new ArrayList<>(List.of(MensagemResumo.de(gerarMensagemCompleta())));
+            when(mensagemService.obterMensagens(any(Pageable.class)))
+                    .thenAnswer(i -> new PageImpl<>(List.copyOf(mensagens), i.getArgument(0), mensagens.size()));
+            var etag = mockMvc.perform(get("/mensagens"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/mensagens").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/mensagens?page=1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk());
+
+            mensagens.add(0, MensagemResumo.de(gerarMensagemCompleta()));
+            mockMvc.perform(get("/mensagens").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)));
+        }
+
         @Test
         void devePermitirListarMensagens_QuandoNaoExisteRegistro()
                 throws Exception {
-            Page<Mensagem> page = new PageImpl<>(Collections.emptyList());
+            Page<MensagemResumo> page = new PageImpl<>(Collections.emptyList());
             when(mensagemService.obterMensagens(any(Pageable.class)))
                     .thenReturn(page);
             mockMvc.perform(get("/mensagens")
@@ -332,7 +542,7 @@ public class MensagemControllerTest extends MensagemHelper {
         @Test
         void devePermitirListarMensagens_QuandoReceberParametrosInvalidos()
                 throws Exception {
-            Page<Mensagem> page = new PageImpl<>(Collections.emptyList());
+            Page<MensagemResumo> page = new PageImpl<>(Collections.emptyList());
             when(mensagemService.obterMensagens(any(Pageable.class)))
                     .thenReturn(page);
             mockMvc.perform(get("/mensagens?page=2&ping=pong")
@@ -343,6 +553,43 @@ public class MensagemControllerTest extends MensagemHelper {
                     .andExpect(jsonPath("$.content", hasSize(0)));
             verify(mensagemService, times(1)).obterMensagens(any(Pageable.class));
         }
+
+        @Test
+        void devePermitirListarMensagens_PorCursor() throws Exception {
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            when(mensagemService.obterMensagens(anyString(), anyInt()))
+                    .thenReturn(new CursorPage<>(Collections.singletonList(mensagem), "proximo"));
+            mockMvc.perform(get("/mensagens?cursor=&size=1")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(mensagem.getId().toString()))
+                    .andExpect(jsonPath("$.next").value("proximo"));
+            verify(mensagemService, times(1)).obterMensagens(eq(""), eq(1));
+            verify(mensagemService, never()).obterMensagens(any(Pageable.class));
+        }
+
+        @Test
+        void devePermitirListarMensagens_DoUsuario() throws Exception {
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            when(mensagemService.obterMensagensDoUsuario(anyString(), anyString(), anyInt()))
+                    .thenReturn(new CursorPage<>(Collections.singletonList(mensagem), null));
+            mockMvc.perform(get("/mensagens?usuario=Jose&cursor=abc&size=5")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(mensagem.getId().toString()));
+            verify(mensagemService, times(1)).obterMensagensDoUsuario(eq("Jose"), eq("abc"), eq(5));
+            verify(mensagemService, never()).obterMensagens(anyString(), anyInt());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarMensagens_CursorInvalido() throws Exception {
+            when(mensagemService.obterMensagens(anyString(), anyInt()))
+                    .thenThrow(new IllegalArgumentException("cursor inválido"));
+            mockMvc.perform(get("/mensagens?cursor=abc")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("cursor inválido"));
+        }
     }
     
     private String asJsonString(final Object obj) {
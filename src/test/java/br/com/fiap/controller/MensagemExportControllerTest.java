@@ -0,0 +1,105 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MensagemExportControllerTest extends MensagemHelper {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private MensagemService mensagemService;
+
+    private List<Mensagem> mensagens;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new MensagemExportController(mensagemService, objectMapper))
+                .build();
+        var comVirgula = gerarMensagemCompleta();
+        comVirgula.setConteudo("olá, \"mundo\"");
+        mensagens = List.of(gerarMensagemCompleta(), comVirgula);
+        when(mensagemService.exportarMensagens(any())).thenAnswer(i -> {
+            Consumer<Mensagem> destino = i.getArgument(0);
+            mensagens.forEach(destino);
+            return (long) mensagens.size();
+        });
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirExportarMensagens_EmNdjson() throws Exception {
+        var resultado = mockMvc.perform(get("/mensagens/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MensagemLoteController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        var linhas = corpo.split("\n");
+        assertThat(corpo).endsWith("\n");
+        assertThat(linhas).hasSize(2);
+        assertThat(linhas[0]).startsWith("{\"id\":\"" + mensagens.get(0).getId() + "\"");
+        assertThat(linhas[1]).contains("\"conteudo\":\"olá, \\\"mundo\\\"\"");
+    }
+
+    @Test
+    void devePermitirExportarMensagens_EmCsv() throws Exception {
+        var resultado = mockMvc.perform(get("/mensagens/export?formato=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"mensagens.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        var linhas = corpo.split("\r\n");
+        assertThat(linhas).hasSize(3);
+        assertThat(linhas[0]).isEqualTo("id,usuario,conteudo,gostei,dataCriacao,dataAlteracao");
+        assertThat(linhas[2]).startsWith(mensagens.get(1).getId() + "," + mensagens.get(1).getUsuario()
+                + ",\"olá, \"\"mundo\"\"\",0,");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoFormatoInvalido() throws Exception {
+        mockMvc.perform(get("/mensagens/export?formato=xml"))
+                .andExpect(status().isBadRequest());
+        verify(mensagemService, never()).exportarMensagens(any());
+    }
+}
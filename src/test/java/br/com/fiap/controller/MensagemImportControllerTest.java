@@ -0,0 +1,78 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.ErroImportacao;
+import br.com.fiap.dto.ImportacaoResponse;
+import br.com.fiap.service.ImportadorMensagens;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MensagemImportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ImportadorMensagens importadorMensagens;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new MensagemImportController(importadorMensagens))
+                .addFilter((request, response, chain) -> {
+                    response.setCharacterEncoding("UTF-8");
+                    chain.doFilter(request, response);
+                }, "/*")
+                .build();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirImportarMensagens() throws Exception {
+        when(importadorMensagens.importar(any(InputStream.class), eq(ImportadorMensagens.Formato.NDJSON)))
+                .thenReturn(new ImportacaoResponse(2, 1, 10, 200,
+                        List.of(new ErroImportacao(2, List.of("JSON inválido")))));
+
+        mockMvc.perform(post("/mensagens/import")
+                        .contentType(MensagemLoteController.APPLICATION_NDJSON_VALUE)
+                        .content("{}\n{\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importadas").value(2))
+                .andExpect(jsonPath("$.mensagensPorSegundo").value(200))
+                .andExpect(jsonPath("$.erros[0].linha").value(2));
+        verify(importadorMensagens).importar(any(InputStream.class), eq(ImportadorMensagens.Formato.NDJSON));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoCsvInvalido() throws Exception {
+        when(importadorMensagens.importar(any(InputStream.class), eq(ImportadorMensagens.Formato.CSV)))
+                .thenThrow(new IllegalArgumentException("arquivo CSV vazio"));
+
+        mockMvc.perform(post("/mensagens/import")
+                        .contentType("text/csv")
+                        .content(""))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("arquivo CSV vazio"));
+    }
+}
@@ -0,0 +1,184 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.handler.GlobalExceptionHandler;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.metrics.MensagemMetricas;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MensagemLoteControllerTest extends MensagemHelper {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private MensagemService mensagemService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        meterRegistry = new SimpleMeterRegistry();
+        var mensagemMetricas = new MensagemMetricas(meterRegistry);
+        MensagemLoteController mensagemLoteController =
+                new MensagemLoteController(mensagemService, validator, objectMapper, mensagemMetricas, 3);
+        mockMvc = MockMvcBuilders.standaloneSetup(mensagemLoteController)
+                .setControllerAdvice(new GlobalExceptionHandler(mensagemMetricas))
+                .addFilter((request, response, chain) -> {
+                    response.setCharacterEncoding("UTF-8");
+                    chain.doFilter(request, response);
+                }, "/*")
+                .build();
+        when(mensagemService.registrarMensagens(anyList())).thenAnswer(i -> {
+            List<Mensagem> mensagens = i.getArgument(0);
+            mensagens.forEach(m -> m.setId(UUID.randomUUID()));
+            return mensagens;
+        });
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirRegistrarMensagensEmLote() throws Exception {
+        var invalida = gerarMensagem();
+        invalida.setConteudo("");
+
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(gerarMensagem(), invalida, gerarMensagem()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registradas").value(2))
+                .andExpect(jsonPath("$.rejeitadas").value(1))
+                .andExpect(jsonPath("$.itens", hasSize(3)))
+                .andExpect(jsonPath("$.itens[0].status").value(201))
+                .andExpect(jsonPath("$.itens[0].id").exists())
+                .andExpect(jsonPath("$.itens[1].status").value(400))
+                .andExpect(jsonPath("$.itens[1].errors[0]").value("conteúdo da mensagem não pode estar vazio"))
+                .andExpect(jsonPath("$.itens[2].status").value(201));
+        verify(mensagemService, times(1)).registrarMensagens(anyList());
+        assertThat(meterRegistry.get("mensagens.validacao.falhas").tag("origem", "lote")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirRegistrarMensagensEmLote_ComNdjson() throws Exception {
+        var corpo = asJsonString(gerarMensagem()) + "\n"
+                + "{ invalido\n"
+                + "\n"
+                + asJsonString(gerarMensagem()) + "\n";
+
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MensagemLoteController.APPLICATION_NDJSON_VALUE)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registradas").value(2))
+                .andExpect(jsonPath("$.itens[1].status").value(400))
+                .andExpect(jsonPath("$.itens[1].errors[0]").value("JSON inválido"));
+    }
+
+    @Test
+    void deveRejeitarItemNulo_NoLote() throws Exception {
+        var corpo = "[" + asJsonString(gerarMensagem()) + ", null]";
+
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registradas").value(1))
+                .andExpect(jsonPath("$.itens[0].status").value(201))
+                .andExpect(jsonPath("$.itens[1].status").value(400))
+                .andExpect(jsonPath("$.itens[1].errors[0]").value("JSON inválido"));
+    }
+
+    @Test
+    void deveRejeitarLinhaNula_NoLoteNdjson() throws Exception {
+        var corpo = "null\n" + asJsonString(gerarMensagem()) + "\n";
+
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MensagemLoteController.APPLICATION_NDJSON_VALUE)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registradas").value(1))
+                .andExpect(jsonPath("$.itens[0].status").value(400))
+                .andExpect(jsonPath("$.itens[0].errors[0]").value("JSON inválido"))
+                .andExpect(jsonPath("$.itens[1].status").value(201));
+    }
+
+    @Test
+    void naoDeveRegistrarMensagens_QuandoTodasInvalidas() throws Exception {
+        var invalida = gerarMensagem();
+        invalida.setUsuario("");
+
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(invalida))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registradas").value(0))
+                .andExpect(jsonPath("$.itens[0].errors[0]").value("usuário não pode estar vazio"));
+        verify(mensagemService, never()).registrarMensagens(anyList());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoLoteExcederLimite() throws Exception {
+        var mensagens = List.of(gerarMensagem(), gerarMensagem(), gerarMensagem(), gerarMensagem());
+
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(mensagens)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("lote excede o limite de 3 mensagens"));
+        verify(mensagemService, never()).registrarMensagens(anyList());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoLoteVazio() throws Exception {
+        mockMvc.perform(post("/mensagens/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("lote vazio"));
+    }
+
+    private String asJsonString(final Object obj) {
+        try {
+            return new ObjectMapper().writeValueAsString(obj);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.GosteiRequest;
+import br.com.fiap.helper.MensagemHelper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@Sql(scripts = {"/db_load.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class MensagemReativoControllerIT extends MensagemHelper {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void devePermitirRegistrarMensagem() {
+        var mensagemRequest = gerarMensagem();
+
+        String id = given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagemRequest)
+        .when()
+            .post("/mensagens")
+        .then()
+            .statusCode(HttpStatus.CREATED.value())
+            .body("$", hasKey("id"))
+            .body("$", hasKey("dataCriacao"))
+            .body("usuario", equalTo(mensagemRequest.getUsuario()))
+            .body("gostei", equalTo(0))
+            .extract().path("id");
+
+        when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("conteudo", equalTo(mensagemRequest.getConteudo()));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoRegistrarMensagem_ConteudoEmBranco() {
+        var mensagemRequest = gerarMensagem();
+        mensagemRequest.setConteudo("");
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagemRequest)
+        .when()
+            .post("/mensagens")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value())
+            .body("message", equalTo("Validation error"))
+            .body("errors[0]", equalTo("conteúdo da mensagem não pode estar vazio"));
+    }
+
+    @Test
+    void devePermitirObterMensagem() {
+        when()
+            .get("/mensagens/{id}", "5f789b39-4295-42c1-a65b-cfca5b987db2")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("usuario", equalTo("Jose"))
+            .body("conteudo", equalTo("mensagem de José"));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoObterMensagem_IdNaoExistente() {
+        when()
+            .get("/mensagens/{id}", UUID.randomUUID())
+        .then()
+            .statusCode(HttpStatus.NOT_FOUND.value())
+            .body(equalTo("mensagem não encontrada"));
+
+        when()
+            .get("/mensagens/{id}", "2")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value())
+            .body(equalTo("ID Inválido"));
+    }
+
+    @Test
+    void devePermitirAlterarMensagem() {
+        var id = UUID.fromString("65b1bbee-c784-4457-be6d-d00b0be5c9e0");
+        var mensagemRequest = gerarMensagem();
+        mensagemRequest.setId(id);
+        mensagemRequest.setConteudo("conteúdo alterado");
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagemRequest)
+        .when()
+            .put("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("conteudo", equalTo("conteúdo alterado"))
+            .body("versao", equalTo(1));
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(mensagemRequest)
+        .when()
+            .put("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("versao", equalTo(2));
+    }
+
+    @Test
+    void devePermitirRemoverMensagem() {
+        var id = "592ac344-9f12-40cd-8ed9-1fde6ad9006e";
+
+        when()
+            .delete("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body(equalTo("mensagem removida"));
+
+        when()
+            .delete("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void devePermitirListarMensagens() {
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 2)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .header("ETag", notNullValue())
+            .body("content", hasSize(2))
+            .body("content[0]", not(hasKey("dataAlteracao")))
+            .body("content[0]", not(hasKey("versao")))
+            .body("content[0]", hasKey("gostei"))
+            .body("$", not(hasKey("pageable")))
+            .body("page", equalTo(0))
+            .body("size", equalTo(2))
+            .body("totalElements", equalTo(3))
+            .body("totalPages", equalTo(2));
+    }
+
+    @Test
+    void devePermitirListarMensagensDoUsuario() {
+        given()
+            .queryParam("usuario", "Maria")
+            .queryParam("size", 2)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .body("content[0].usuario", equalTo("Maria"))
+            .body("next", nullValue());
+
+        given()
+            .queryParam("usuario", "Maria")
+            .queryParam("cursor", "invalido")
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void devePermitirListarMensagensPorCursor() {
+        String proximo = given()
+            .queryParam("cursor", "")
+            .queryParam("size", 2)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(2))
+            .extract().path("next");
+
+        given()
+            .queryParam("cursor", proximo)
+            .queryParam("size", 2)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .body("next", nullValue());
+    }
+
+    @Test
+    void devePermitirGostarMensagemUmaVezPorUsuario() {
+        var id = "5f789b39-4295-42c1-a65b-cfca5b987db2";
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("gostei", equalTo(1));
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id)
+        .then()
+            .statusCode(HttpStatus.CONFLICT.value());
+    }
+
+    @Test
+    @Sql(scripts = {"/db_load.sql"}, statements = {
+            "UPDATE mensagem SET data_remocao = CURRENT_TIMESTAMP WHERE id = '592ac344-9f12-40cd-8ed9-1fde6ad9006e'"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void deveIgnorarMensagemRemovidaLogicamente() {
+        var id = "592ac344-9f12-40cd-8ed9-1fde6ad9006e";
+
+        when()
+            .get("/mensagens/{id}", id)
+        .then()
+            .statusCode(HttpStatus.NOT_FOUND.value());
+
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 10)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(2))
+            .body("totalElements", equalTo(2));
+
+        String proximo = given()
+            .queryParam("cursor", "")
+            .queryParam("size", 1)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .extract().path("next");
+
+        given()
+            .queryParam("cursor", proximo)
+            .queryParam("size", 10)
+        .when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content", hasSize(1))
+            .body("next", nullValue());
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(new GosteiRequest("Maria"))
+        .when()
+            .post("/mensagens/{id}/gostei", id)
+        .then()
+            .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.dto.GosteiRequest;
+import br.com.fiap.exception.GosteiDuplicadoException;
+import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.handler.GlobalExceptionHandler;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.metrics.MensagemMetricas;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.service.MensagemServiceReativo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MensagemReativoControllerTest extends MensagemHelper {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private MensagemServiceReativo mensagemService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        var mensagemMetricas = new MensagemMetricas(meterRegistry);
+        webTestClient = WebTestClient
+                .bindToController(new MensagemReativoController(mensagemService, mensagemMetricas))
+                .controllerAdvice(new GlobalExceptionHandler(mensagemMetricas))
+                .build();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirRegistrarMensagem() {
+        when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                .thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+        webTestClient.post().uri("/mensagens")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(gerarMensagem())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.usuario").isEqualTo("João");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoRegistrarMensagem_UsuarioEmBranco() {
+        var mensagemRequest = gerarMensagem();
+        mensagemRequest.setUsuario("");
+
+        webTestClient.post().uri("/mensagens")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(mensagemRequest)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation error")
+                .jsonPath("$.errors[0]").isEqualTo("usuário não pode estar vazio");
+        verify(mensagemService, never()).registrarMensagem(any(Mensagem.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoObterMensagem_IdNaoExistente() {
+        when(mensagemService.obterMensagem(any(UUID.class)))
+                .thenReturn(Mono.error(new MensagemNotFoundException("mensagem não encontrada")));
+
+        webTestClient.get().uri("/mensagens/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("mensagem não encontrada");
+        assertThat(meterRegistry.get("mensagens.nao.encontradas").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoObterMensagem_IdInvalido() {
+        webTestClient.get().uri("/mensagens/{id}", "2")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("ID Inválido");
+        verify(mensagemService, never()).obterMensagem(any(UUID.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoUsuarioJaGostouDaMensagem() {
+        when(mensagemService.gostarMensagem(any(UUID.class), anyString()))
+                .thenReturn(Mono.error(new GosteiDuplicadoException("usuário já gostou da mensagem")));
+
+        webTestClient.post().uri("/mensagens/{id}/gostei", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new GosteiRequest("Maria"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(String.class).isEqualTo("usuário já gostou da mensagem");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoCursorInvalido() {
+        when(mensagemService.obterMensagens(anyString(), anyInt()))
+                .thenReturn(Mono.error(new IllegalArgumentException("cursor inválido")));
+
+        webTestClient.get().uri("/mensagens?cursor=xyz")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("cursor inválido");
+    }
+}
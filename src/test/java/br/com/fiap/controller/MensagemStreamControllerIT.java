@@ -0,0 +1,75 @@
+package br.com.fiap.controller;
+
+import br.com.fiap.helper.MensagemHelper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class MensagemStreamControllerIT extends MensagemHelper {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void devePermitirAcompanharMensagens_EmTempoReal() throws Exception {
+        var resposta = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mensagens/stream"))
+                        .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(resposta.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(resposta.headers().firstValue("Content-Type"))
+                .hasValueSatisfying(tipo -> assertThat(tipo).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        var linhas = new ArrayList<String>();
+        var leitura = CompletableFuture.runAsync(() -> resposta.body()
+                .takeWhile(linha -> !linha.startsWith("event:removida"))
+                .forEach(linhas::add));
+
+        var mensagem = gerarMensagem();
+        String id = given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(mensagem)
+                .when()
+                .post("/mensagens")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract().path("id");
+        given()
+                .when()
+                .delete("/mensagens/{id}", id)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        leitura.get(10, TimeUnit.SECONDS);
+        assertThat(linhas).contains("event:criada");
+        assertThat(linhas).anySatisfy(linha -> assertThat(linha)
+                .startsWith("data:")
+                .contains(id, mensagem.getConteudo()));
+        resposta.body().close();
+    }
+}
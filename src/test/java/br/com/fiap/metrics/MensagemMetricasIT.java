@@ -0,0 +1,69 @@
+package br.com.fiap.metrics;
+
+import br.com.fiap.helper.MensagemHelper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class MensagemMetricasIT extends MensagemHelper {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void devePublicarMetricas_NoFormatoPrometheus() {
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(gerarMensagem())
+        .when()
+                .post("/mensagens")
+        .then()
+                .statusCode(HttpStatus.CREATED.value());
+        when()
+                .get("/mensagens/{id}", UUID.randomUUID())
+        .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+        var invalida = gerarMensagem();
+        invalida.setConteudo("");
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(invalida)
+        .when()
+                .post("/mensagens")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        when()
+                .get("/actuator/prometheus")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body(containsString("mensagens_servico_seconds_bucket{class=\"br.com.fiap.service.MensagemServiceImp\""))
+                .body(containsString("method=\"registrarMensagem\""))
+                .body(containsString("exception=\"MensagemNotFoundException\""))
+                .body(containsString("mensagens_nao_encontradas_total 1.0"))
+                .body(containsString("mensagens_validacao_falhas_total{origem=\"requisicao\",} 1.0"))
+                .body(containsString("spring_data_repository_invocations_seconds_bucket"))
+                .body(containsString("http_server_requests_seconds_bucket"));
+    }
+}
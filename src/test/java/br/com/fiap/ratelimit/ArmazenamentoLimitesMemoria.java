@@ -0,0 +1,51 @@
+package br.com.fiap.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ArmazenamentoLimites} em memória, no lugar de um armazenamento externo, para testar
+ * o {@link LimitadorTaxaCompartilhado} com várias "instâncias" no mesmo processo.
+ */
+class ArmazenamentoLimitesMemoria implements ArmazenamentoLimites {
+
+    private record Entrada(long valor, long expiraEm) {
+    }
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Clock relogio;
+
+    ArmazenamentoLimitesMemoria(Clock relogio) {
+        this.relogio = relogio;
+    }
+
+    @Override
+    public long obter(String chave) {
+        var entrada = entradas.get(chave);
+        return entrada == null || expirada(entrada) ? LimiteTaxa.CHEIO : entrada.valor();
+    }
+
+    @Override
+    public boolean substituir(String chave, long esperado, long novo, Duration ttl) {
+        var atual = entradas.get(chave);
+        var valorAtual = atual == null || expirada(atual) ? LimiteTaxa.CHEIO : atual.valor();
+        if (valorAtual != esperado) {
+            return false;
+        }
+        var nova = new Entrada(novo, relogio.millis() + ttl.toMillis());
+        return atual == null
+                ? entradas.putIfAbsent(chave, nova) == null
+                : entradas.replace(chave, atual, nova);
+    }
+
+    int chaves() {
+        entradas.values().removeIf(this::expirada);
+        return entradas.size();
+    }
+
+    private boolean expirada(Entrada entrada) {
+        return entrada.expiraEm() <= relogio.millis();
+    }
+}
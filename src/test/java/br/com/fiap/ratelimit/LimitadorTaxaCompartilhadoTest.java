@@ -0,0 +1,107 @@
+package br.com.fiap.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LimitadorTaxaCompartilhadoTest {
+
+    private static final LimiteTaxa LIMITE = new LimiteTaxa(10, 3);
+
+    private final RelogioTeste relogio = new RelogioTeste();
+    private ArmazenamentoLimitesMemoria armazenamento;
+
+    @BeforeEach
+    void setup() {
+        armazenamento = new ArmazenamentoLimitesMemoria(relogio);
+    }
+
+    @Test
+    void deveCompartilharOLimite_EntreInstancias() {
+        var instancia1 = novaInstancia(armazenamento);
+        var instancia2 = novaInstancia(armazenamento);
+
+        assertThat(instancia1.consumir("ip", LIMITE)).isZero();
+        assertThat(instancia2.consumir("ip", LIMITE)).isZero();
+        assertThat(instancia1.consumir("ip", LIMITE)).isZero();
+
+        assertThat(instancia2.consumir("ip", LIMITE)).isEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(instancia1.consumir("ip", LIMITE)).isPositive();
+    }
+
+    @Test
+    void deveExpirarChave_QuandoBaldeEnche() {
+        var limitador = novaInstancia(armazenamento);
+        IntStream.range(0, 3).forEach(i -> limitador.consumir("ip", LIMITE));
+        assertThat(armazenamento.chaves()).isEqualTo(1);
+
+        relogio.avancar(Duration.ofMillis(300));
+
+        assertThat(armazenamento.chaves()).isZero();
+        assertThat(IntStream.range(0, 3).mapToLong(i -> limitador.consumir("ip", LIMITE))).containsOnly(0L);
+    }
+
+    @Test
+    void deveAplicarLimiteLocal_QuandoArmazenamentoIndisponivel() {
+        var indisponivel = mock(ArmazenamentoLimites.class);
+        when(indisponivel.obter(anyString())).thenThrow(new IllegalStateException("conexão recusada"));
+        var limitador = novaInstancia(indisponivel);
+
+        assertThat(IntStream.range(0, 3).mapToLong(i -> limitador.consumir("ip", LIMITE))).containsOnly(0L);
+        assertThat(limitador.consumir("ip", LIMITE)).isPositive();
+    }
+
+    @Test
+    void deveAplicarLimiteLocal_QuandoChaveDisputada() {
+        var disputado = mock(ArmazenamentoLimites.class);
+        when(disputado.obter(anyString())).thenReturn(LimiteTaxa.CHEIO);
+        when(disputado.substituir(anyString(), anyLong(), anyLong(), any())).thenReturn(false);
+        var local = new LimitadorTaxaLocal(100, Duration.ofSeconds(1));
+        var limitador = new LimitadorTaxaCompartilhado(disputado, relogio, local);
+
+        assertThat(limitador.consumir("ip", LIMITE)).isZero();
+        assertThat(local.chaves()).isEqualTo(1);
+    }
+
+    private LimitadorTaxaCompartilhado novaInstancia(ArmazenamentoLimites armazenamento) {
+        return new LimitadorTaxaCompartilhado(armazenamento, relogio,
+                new LimitadorTaxaLocal(100, Duration.ofSeconds(1)));
+    }
+
+    private static class RelogioTeste extends Clock {
+
+        private Instant agora = Instant.parse("2023-07-01T12:00:00Z");
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.fiap.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LimitadorTaxaLocalTest {
+
+    // 10 por segundo, até 3 seguidas
+    private static final LimiteTaxa LIMITE = new LimiteTaxa(10, 3);
+
+    private final AtomicLong agora = new AtomicLong();
+    private LimitadorTaxaLocal limitador;
+
+    @BeforeEach
+    void setup() {
+        limitador = new LimitadorTaxaLocal(100, Duration.ofSeconds(1), agora::get);
+    }
+
+    @Test
+    void devePermitirRajada_ERecusarAcimaDoLimite() {
+        assertThat(IntStream.range(0, 3).mapToLong(i -> limitador.consumir("ip", LIMITE))).containsOnly(0L);
+
+        assertThat(limitador.consumir("ip", LIMITE)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void deveReporTokens_ConformeATaxa() {
+        IntStream.range(0, 3).forEach(i -> limitador.consumir("ip", LIMITE));
+
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        assertThat(limitador.consumir("ip", LIMITE)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(60));
+
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+        assertThat(limitador.consumir("ip", LIMITE)).isZero();
+        assertThat(limitador.consumir("ip", LIMITE)).isPositive();
+    }
+
+    @Test
+    void deveLimitarCadaChave_Separadamente() {
+        IntStream.range(0, 3).forEach(i -> limitador.consumir("ip-1", LIMITE));
+
+        assertThat(limitador.consumir("ip-1", LIMITE)).isPositive();
+        assertThat(limitador.consumir("ip-2", LIMITE)).isZero();
+    }
+
+    @Test
+    void deveDescartarChavesOciosas() {
+        limitador.consumir("ip-1", LIMITE);
+        limitador.consumir("ip-2", LIMITE);
+        assertThat(limitador.chaves()).isEqualTo(2);
+
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertThat(limitador.chaves()).isZero();
+    }
+
+    @Test
+    void deveAceitarExatamenteARajada_QuandoRequisicoesConcorrentes() throws Exception {
+        var limite = new LimiteTaxa(1, 100);
+        var aceitas = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            IntStream.range(0, 1000).forEach(i -> executor.submit(() -> {
+                if (limitador.consumir("ip", limite) == 0) {
+                    aceitas.incrementAndGet();
+                }
+            }));
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(aceitas).hasValue(100);
+    }
+}
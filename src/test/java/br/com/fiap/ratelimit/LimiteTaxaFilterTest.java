@@ -0,0 +1,75 @@
+package br.com.fiap.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LimiteTaxaFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LimiteTaxaFilter filtro;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new LimiteTaxaFilter(
+                new LimitadorTaxaLocal(100, Duration.ofMinutes(1)),
+                new LimiteTaxa(1, 2),
+                new LimiteTaxa(0.1, 1),
+                meterRegistry);
+    }
+
+    @Test
+    void deveRecusarRequisicao_QuandoLimiteExcedido() throws Exception {
+        assertThat(executar("POST", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        var resposta = executar("POST", "10.0.0.1");
+
+        assertThat(resposta.getStatus()).isEqualTo(429);
+        assertThat(resposta.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(resposta.getContentAsString()).isEqualTo(LimiteTaxaFilter.MENSAGEM);
+        assertThat(meterRegistry.get("mensagens.limite.rejeitadas").tag("rota", "escrita").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void deveLimitarLeituraEEscrita_Separadamente() throws Exception {
+        executar("POST", "10.0.0.1");
+
+        assertThat(executar("POST", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(executar("GET", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(executar("HEAD", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(executar("GET", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void deveLimitarCadaIp_Separadamente() throws Exception {
+        executar("DELETE", "10.0.0.1");
+
+        assertThat(executar("DELETE", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(executar("DELETE", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void deveArredondarRetryAfter_ParaCima() {
+        assertThat(LimiteTaxaFilter.segundos(1)).isEqualTo(1);
+        assertThat(LimiteTaxaFilter.segundos(TimeUnit.SECONDS.toNanos(2))).isEqualTo(2);
+        assertThat(LimiteTaxaFilter.segundos(TimeUnit.MILLISECONDS.toNanos(2001))).isEqualTo(3);
+    }
+
+    private MockHttpServletResponse executar(String metodo, String ip) throws Exception {
+        var request = new MockHttpServletRequest(metodo, "/mensagens");
+        request.setRemoteAddr(ip);
+        var response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
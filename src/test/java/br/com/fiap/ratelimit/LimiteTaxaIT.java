@@ -0,0 +1,65 @@
+package br.com.fiap.ratelimit;
+
+import br.com.fiap.helper.MensagemHelper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "mensagens.limite.escrita.taxa=0.1",
+                "mensagens.limite.escrita.rajada=2"})
+public class LimiteTaxaIT extends MensagemHelper {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void deveRetornarMuitasRequisicoes_QuandoLimiteDePublicacaoExcedido() {
+        for (int i = 0; i < 2; i++) {
+            given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(gerarMensagem())
+            .when()
+                .post("/mensagens")
+            .then()
+                .statusCode(HttpStatus.CREATED.value());
+        }
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(gerarMensagem())
+        .when()
+            .post("/mensagens")
+        .then()
+            .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+            .header(HttpHeaders.RETRY_AFTER, notNullValue())
+            .body(equalTo("limite de requisições excedido"));
+
+        // as leituras têm um balde próprio, e endpoints fora de /mensagens não são limitados
+        when()
+            .get("/mensagens")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+        when()
+            .get("/actuator/health")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+    }
+}
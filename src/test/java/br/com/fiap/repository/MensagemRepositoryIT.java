@@ -0,0 +1,185 @@
+package br.com.fiap.repository;
+
+import br.com.fiap.helper.MensagemHelper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planos de execução das consultas de {@link MensagemRepository}. O SQL analisado é o gerado
+ * pelo Hibernate, capturado por {@link ConsultasGeradas}, executado com os mesmos parâmetros:
+ * uma alteração na consulta que deixe de usar o índice faz o teste falhar.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.fiap.repository.MensagemRepositoryIT$ConsultasGeradas")
+@AutoConfigureTestDatabase
+@Sql(scripts = {"/db_load.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class MensagemRepositoryIT extends MensagemHelper {
+
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveUtilizarIndice_QuandoListarTimeline() {
+        var sql = sqlGerado(() -> mensagemRepository.obterResumos(PageRequest.of(0, 10)));
+
+        var plano = explicar(sql, 0, 10);
+
+        assertThat(plano)
+                .containsIgnoringCase("IDX_MENSAGEM_TIMELINE")
+                .containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void deveLerApenasAPagina_QuandoListarTimelinePorCursorDistante() {
+        carregarMensagens(5_000);
+        var cursor = posicao("SELECT data_criacao, id FROM mensagem " +
+                "ORDER BY data_criacao DESC, id DESC LIMIT 1 OFFSET 4900");
+        var dataCriacao = (LocalDateTime) cursor[0];
+        var id = (UUID) cursor[1];
+        var sql = sqlGerado(() -> mensagemRepository.obterMensagensApos(dataCriacao, id, PageRequest.of(0, 11)));
+
+        var plano = explicarComLeituras(sql, dataCriacao, dataCriacao, id, 0, 11);
+
+        assertThat(plano)
+                .containsIgnoringCase("IDX_MENSAGEM_TIMELINE")
+                .containsIgnoringCase("index sorted");
+        assertThat(linhasLidas(plano)).isLessThanOrEqualTo(12);
+    }
+
+    @Test
+    void deveUtilizarIndice_QuandoFiltrarPorUsuario() {
+        var sql = sqlGerado(() -> mensagemRepository.obterMensagensDoUsuario("Jose", PageRequest.of(0, 10)));
+
+        var plano = explicar(sql, "Jose", 0, 10);
+
+        assertThat(plano)
+                .containsIgnoringCase("IDX_MENSAGEM_USUARIO_TIMELINE")
+                .containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void deveLerApenasAPagina_QuandoListarTimelineDoUsuarioPorCursorDistante() {
+        carregarMensagens(5_000);
+        var cursor = posicao("SELECT data_criacao, id FROM mensagem WHERE usuario = 'usuario7' " +
+                "ORDER BY data_criacao DESC, id DESC LIMIT 1 OFFSET 450");
+        var dataCriacao = (LocalDateTime) cursor[0];
+        var id = (UUID) cursor[1];
+        var sql = sqlGerado(() -> mensagemRepository.obterMensagensDoUsuarioApos(
+                "usuario7", dataCriacao, id, PageRequest.of(0, 11)));
+
+        var plano = explicarComLeituras(sql, "usuario7", dataCriacao, dataCriacao, id, 0, 11);
+
+        assertThat(plano)
+                .containsIgnoringCase("IDX_MENSAGEM_USUARIO_TIMELINE")
+                .containsIgnoringCase("index sorted");
+        assertThat(linhasLidas(plano)).isLessThanOrEqualTo(12);
+    }
+
+    /**
+     * Executa a consulta do repositório e retorna o primeiro {@code SELECT} enviado ao banco.
+     */
+    private static String sqlGerado(Runnable consulta) {
+        ConsultasGeradas.limpar();
+        consulta.run();
+        return ConsultasGeradas.obter().stream()
+                .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private String explicar(String sql, Object... parametros) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parametros(sql, parametros));
+    }
+
+    private String explicarComLeituras(String sql, Object... parametros) {
+        return jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + sql, String.class, parametros(sql, parametros));
+    }
+
+    /**
+     * Os parâmetros são informados na ordem em que aparecem no SQL gerado, inclusive os
+     * repetidos, o deslocamento e o limite da página.
+     */
+    private static Object[] parametros(String sql, Object[] parametros) {
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("parâmetros de %s", sql)
+                .isEqualTo(parametros.length);
+        return parametros;
+    }
+
+    /**
+     * Total de linhas percorridas pela consulta, somando os {@code scanCount} do plano.
+     */
+    private static int linhasLidas(String plano) {
+        var matcher = SCAN_COUNT.matcher(plano);
+        int total = 0;
+        while (matcher.find()) {
+            total += Integer.parseInt(matcher.group(1));
+        }
+        assertThat(total).as("scanCount no plano: %s", plano).isPositive();
+        return total;
+    }
+
+    /**
+     * Mensagens com datas distintas, distribuídas entre 10 usuários.
+     */
+    private void carregarMensagens(int quantidade) {
+        jdbcTemplate.update("INSERT INTO mensagem (id, usuario, conteudo, data_criacao, data_alteracao) " +
+                "SELECT RANDOM_UUID(), 'usuario' || MOD(X, 10), 'conteúdo ' || X, " +
+                "DATEADD(SECOND, X, TIMESTAMP '2023-01-01 00:00:00'), " +
+                "DATEADD(SECOND, X, TIMESTAMP '2023-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, ?)", quantidade);
+    }
+
+    /**
+     * Data de criação e ID da linha retornada, para montar o cursor.
+     */
+    private Object[] posicao(String sql) {
+        return jdbcTemplate.queryForObject(sql, (rs, i) -> new Object[]{
+                rs.getObject(1, LocalDateTime.class),
+                rs.getObject(2, UUID.class)});
+    }
+
+    /**
+     * Registra o SQL gerado pelo Hibernate, sem alterá-lo.
+     */
+    public static class ConsultasGeradas implements StatementInspector {
+
+        private static final List<String> CONSULTAS = new ArrayList<>();
+
+        static synchronized void limpar() {
+            CONSULTAS.clear();
+        }
+
+        static synchronized List<String> obter() {
+            return List.copyOf(CONSULTAS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (ConsultasGeradas.class) {
+                CONSULTAS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.fiap.service;
+
+import br.com.fiap.helper.MensagemHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "mensagens.gostei.write-behind.enabled=true",
+        "mensagens.gostei.write-behind.intervalo=3600000"
+})
+@AutoConfigureTestDatabase
+@Sql(scripts = {"/db_load.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ContadorGosteiAcumuladoIT extends MensagemHelper {
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private ContadorGosteiAcumulado contadorGostei;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveExibirGosteiPendentes_AntesDeGravarEmLote() {
+        var id = UUID.fromString("5f789b39-4295-42c1-a65b-cfca5b987db2");
+
+        mensagemService.gostarMensagem(id, "Maria");
+        var mensagem = mensagemService.gostarMensagem(id, "Carlota");
+
+        assertThat(mensagem.getGostei()).isEqualTo(2);
+        assertThat(gosteiGravados(id)).isZero();
+
+        contadorGostei.descarregar();
+
+        assertThat(gosteiGravados(id)).isEqualTo(2);
+        assertThat(mensagemService.obterMensagem(id).getGostei()).isEqualTo(2);
+    }
+
+    private int gosteiGravados(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT gostei FROM mensagem WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.fiap.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContadorGosteiAcumuladoTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private MensagemCache mensagemCache;
+    private ContadorGosteiAcumulado contadorGostei;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        doAnswer(i -> {
+            Consumer<TransactionStatus> acao = i.getArgument(0);
+            acao.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        contadorGostei = new ContadorGosteiAcumulado(jdbcTemplate, transactionTemplate, mensagemCache);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveManterGosteiPendentes_AteSeremGravadosEmLote() {
+        var id = UUID.randomUUID();
+        IntStream.range(0, 3).forEach(i -> contadorGostei.incrementar(id));
+
+        assertThat(contadorGostei.pendentes(id)).isEqualTo(3);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        contadorGostei.descarregar();
+        assertThat(contadorGostei.pendentes(id)).isZero();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> lote = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), lote.capture());
+        assertThat(lote.getValue()).containsExactly(new Object[]{3L, id});
+        verify(mensagemCache, times(1)).invalidar(id);
+
+        contadorGostei.descarregar();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void deveManterGosteiRecebidos_DuranteAGravacao() {
+        var id = UUID.randomUUID();
+        contadorGostei.incrementar(id);
+        contadorGostei.incrementar(id);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(i -> {
+            contadorGostei.incrementar(id);
+            return new int[]{1};
+        });
+
+        contadorGostei.descarregar();
+        assertThat(contadorGostei.pendentes(id)).isEqualTo(1);
+
+        contadorGostei.descarregar();
+        assertThat(contadorGostei.pendentes(id)).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> lote = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), lote.capture());
+        assertThat(lote.getAllValues()).extracting(incrementos -> incrementos.get(0)[0]).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void deveManterGosteiPendentes_QuandoGravacaoFalhar() {
+        var id = UUID.randomUUID();
+        contadorGostei.incrementar(id);
+        contadorGostei.incrementar(id);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+
+        contadorGostei.descarregar();
+        assertThat(contadorGostei.pendentes(id)).isEqualTo(2);
+        verify(mensagemCache, never()).invalidar(id);
+
+        contadorGostei.descarregar();
+        assertThat(contadorGostei.pendentes(id)).isZero();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> lote = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), lote.capture());
+        assertThat(lote.getValue()).containsExactly(new Object[]{2L, id});
+    }
+
+    @Test
+    void deveContabilizarGosteiConcorrentes() throws Exception {
+        var id = UUID.randomUUID();
+        var threads = IntStream.range(0, 8)
+                .mapToObj(i -> new Thread(() ->
+                        IntStream.range(0, 1000).forEach(j -> contadorGostei.incrementar(id))))
+                .toList();
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertThat(contadorGostei.pendentes(id)).isEqualTo(8000);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.fiap.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GeradorUuidTest {
+
+    @Test
+    void deveGerarUuidVersao7() {
+        var id = GeradorUuid.gerar();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UUID.fromString(id.toString())).isEqualTo(id);
+    }
+
+    @Test
+    void deveRegistrarInstanteDeCriacao() {
+        var antes = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        var id = GeradorUuid.gerar();
+
+        assertThat(GeradorUuid.instante(id))
+                .isBetween(antes, Instant.now().plusMillis(1));
+    }
+
+    @Test
+    void deveGerarIdsCrescentes_NaOrdemDoBanco() {
+        var ids = IntStream.range(0, 10_000).mapToObj(i -> GeradorUuid.gerar()).toList();
+
+        var ordenados = new ArrayList<>(ids);
+        ordenados.sort(GeradorUuidTest::compararSemSinal);
+        assertThat(ordenados).containsExactlyElementsOf(ids);
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+    }
+
+    @Test
+    void deveGerarIdsUnicos_ComVariasThreads() throws InterruptedException {
+        var ids = new ConcurrentLinkedQueue<UUID>();
+        var executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> IntStream.range(0, 5_000).forEach(j -> ids.add(GeradorUuid.gerar())));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(new HashSet<>(ids)).hasSize(40_000);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoUuidNaoForVersao7() {
+        var id = UUID.randomUUID();
+
+        assertThatThrownBy(() -> GeradorUuid.instante(id))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("UUID não é da versão 7");
+    }
+
+    private static int compararSemSinal(UUID a, UUID b) {
+        var comparacao = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return comparacao != 0
+                ? comparacao
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
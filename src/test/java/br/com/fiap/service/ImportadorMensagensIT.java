@@ -0,0 +1,124 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dto.ErroImportacao;
+import br.com.fiap.helper.MensagemHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "mensagens.importacao.threads=2",
+        "mensagens.importacao.tamanho-bloco=3"
+})
+@AutoConfigureTestDatabase
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ImportadorMensagensIT extends MensagemHelper {
+
+    @Autowired
+    private ImportadorMensagens importadorMensagens;
+
+    @Autowired
+    private IndiceMensagens indiceMensagens;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void devePermitirImportarNdjson_ReportandoLinhasRejeitadas() throws Exception {
+        var corpo = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            corpo.append(objectMapper.writeValueAsString(gerarMensagem())).append('\n');
+        }
+        corpo.append("{ invalido\n")
+                .append("\n")
+                .append("{\"usuario\":\"Jose\",\"conteudo\":\"\"}\n")
+                .append("{\"usuario\":\"Jose\",\"conteudo\":\"").append("a".repeat(300)).append("\"}\n");
+
+        var resultado = importadorMensagens.importar(entrada(corpo.toString()), ImportadorMensagens.Formato.NDJSON);
+
+        assertThat(resultado.getImportadas()).isEqualTo(10);
+        assertThat(resultado.getRejeitadas()).isEqualTo(3);
+        assertThat(resultado.getErros())
+                .extracting(ErroImportacao::getLinha, ErroImportacao::getErrors)
+                .containsExactly(
+                        tuple(11L, List.of("JSON inválido")),
+                        tuple(13L, List.of("conteúdo da mensagem não pode estar vazio")),
+                        tuple(14L, List.of("mensagem não pôde ser gravada")));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mensagem", Long.class)).isEqualTo(10);
+    }
+
+    @Test
+    void deveRejeitarLinhaNula_SemInterromperImportacao() throws Exception {
+        var corpo = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            corpo.append(i == 4 ? "null" : objectMapper.writeValueAsString(gerarMensagem())).append('\n');
+        }
+
+        var resultado = importadorMensagens.importar(entrada(corpo.toString()), ImportadorMensagens.Formato.NDJSON);
+
+        assertThat(resultado.getImportadas()).isEqualTo(6);
+        assertThat(resultado.getErros())
+                .extracting(ErroImportacao::getLinha, ErroImportacao::getErrors)
+                .containsExactly(tuple(5L, List.of("JSON inválido")));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mensagem", Long.class)).isEqualTo(6);
+    }
+
+    @Test
+    void devePermitirBuscarMensagensImportadas() throws Exception {
+        var corpo = "{\"usuario\":\"Jose\",\"conteudo\":\"planilha trimestral importada\"}\n"
+                + "{\"usuario\":\"Maria\",\"conteudo\":\"outro assunto\"}\n";
+
+        importadorMensagens.importar(entrada(corpo), ImportadorMensagens.Formato.NDJSON);
+        indiceMensagens.atualizarLeitor();
+
+        var id = jdbcTemplate.queryForObject(
+                "SELECT id FROM mensagem WHERE usuario = 'Jose'", UUID.class);
+        assertThat(indiceMensagens.buscar("trimestral", 10)).containsExactly(id);
+    }
+
+    @Test
+    void devePermitirImportarCsv_NoFormatoDaExportacao() throws Exception {
+        var corpo = "id,usuario,conteudo,gostei,dataCriacao,dataAlteracao\r\n"
+                + "1,Jose,\"olá, \"\"mundo\"\"\",5,2024-10-01T00:00:00.1,2024-10-01T00:00:00.1\r\n"
+                + ",Maria,\"primeira linha\nsegunda linha\",0,,\r\n"
+                + ",,sem usuário,0,,\r\n";
+
+        var resultado = importadorMensagens.importar(entrada(corpo), ImportadorMensagens.Formato.CSV);
+
+        assertThat(resultado.getImportadas()).isEqualTo(2);
+        assertThat(resultado.getErros()).singleElement()
+                .extracting(ErroImportacao::getLinha)
+                .isEqualTo(5L);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT conteudo FROM mensagem ORDER BY data_criacao", String.class))
+                .containsExactly("olá, \"mundo\"", "primeira linha\nsegunda linha");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoCabecalhoCsvIncompleto() {
+        assertThatThrownBy(() -> importadorMensagens.importar(
+                entrada("usuario,texto\r\nJose,oi\r\n"), ImportadorMensagens.Formato.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cabeçalho CSV deve conter as colunas usuario e conteudo");
+    }
+
+    private static ByteArrayInputStream entrada(String corpo) {
+        return new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+}
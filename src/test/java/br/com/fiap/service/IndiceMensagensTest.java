@@ -0,0 +1,142 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.model.Mensagem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IndiceMensagensTest extends MensagemHelper {
+
+    @Mock
+    private MensagemService mensagemService;
+    private IndiceMensagens indiceMensagens;
+    private final List<Runnable> reconstrucoes = new ArrayList<>();
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() throws Exception {
+        mock = MockitoAnnotations.openMocks(this);
+        indiceMensagens = new IndiceMensagens(mensagemService, Duration.ofDays(7), reconstrucoes::add);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        indiceMensagens.destroy();
+        mock.close();
+    }
+
+    @Test
+    void devePermitirBuscarPorConteudoEUsuario_SemAcentos() throws Exception {
+        var jose = mensagem("José", "Reunião amanhã às dez", 0);
+        var maria = mensagem("Maria", "almoço no refeitório", 0);
+        indexar(jose, maria);
+
+        assertThat(indiceMensagens.buscar("reuniao", 10)).containsExactly(jose.getId());
+        assertThat(indiceMensagens.buscar("JOSE", 10)).containsExactly(jose.getId());
+        assertThat(indiceMensagens.buscar("refeit*", 10)).containsExactly(maria.getId());
+        assertThat(indiceMensagens.buscar("almoço amanhã", 10)).isEmpty();
+        assertThat(indiceMensagens.buscar("almoço | amanhã", 10))
+                .containsExactlyInAnyOrder(jose.getId(), maria.getId());
+    }
+
+    @Test
+    void deveOrdenarPorRecencia_QuandoRelevanciaIgual() throws Exception {
+        var antiga = mensagem("Jose", "deploy concluído", 30);
+        var recente = mensagem("Jose", "deploy concluído", 0);
+        indexar(antiga, recente);
+
+        assertThat(indiceMensagens.buscar("deploy", 10)).containsExactly(recente.getId(), antiga.getId());
+    }
+
+    @Test
+    void deveReduzirBonusDeRecenciaPelaMetade_ACadaPeriodo() {
+        var recencia = Duration.ofDays(7).toMillis();
+
+        assertThat(IndiceMensagens.bonusRecencia(0, recencia)).isEqualTo(2.0);
+        assertThat(IndiceMensagens.bonusRecencia(recencia, recencia)).isEqualTo(1.5);
+        assertThat(IndiceMensagens.bonusRecencia(2 * recencia, recencia)).isEqualTo(1.25);
+        assertThat(IndiceMensagens.bonusRecencia(3 * recencia, recencia)).isEqualTo(1.125);
+        // data de criação no futuro (relógios diferentes) não ultrapassa o bônus máximo
+        assertThat(IndiceMensagens.bonusRecencia(-recencia, recencia)).isEqualTo(2.0);
+    }
+
+    @Test
+    void deveAtualizarIndice_QuandoMensagemAlteradaOuRemovida() throws Exception {
+        var mensagem = mensagem("Jose", "texto original", 0);
+        indexar(mensagem);
+
+        indiceMensagens.onMensagemEvento(MensagemEvento.atualizada(
+                mensagem.toBuilder().conteudo("texto revisado").build()));
+        indiceMensagens.atualizarLeitor();
+        assertThat(indiceMensagens.buscar("original", 10)).isEmpty();
+        assertThat(indiceMensagens.buscar("revisado", 10)).containsExactly(mensagem.getId());
+
+        indiceMensagens.onMensagemEvento(MensagemEvento.removida(mensagem.getId()));
+        indiceMensagens.atualizarLeitor();
+        assertThat(indiceMensagens.buscar("texto", 10)).isEmpty();
+    }
+
+    @Test
+    void devePermitirReconstruirIndice_APartirDoRepositorio() throws Exception {
+        var removidaForaDaAplicacao = mensagem("Jose", "mensagem apagada por script", 0);
+        indexar(removidaForaDaAplicacao);
+        var importada = mensagem("Maria", "mensagem importada", 0);
+        when(mensagemService.exportarMensagens(any())).thenAnswer(i -> {
+            Consumer<Mensagem> destino = i.getArgument(0);
+            destino.accept(importada);
+            return 1L;
+        });
+
+        assertThat(indiceMensagens.reconstruir()).isEqualTo(1);
+
+        assertThat(indiceMensagens.buscar("mensagem", 10)).containsExactly(importada.getId());
+    }
+
+    @Test
+    void deveReconstruirIndiceAoIniciar_ForaDaThreadDeInicializacao() throws Exception {
+        var importada = mensagem("Maria", "mensagem importada", 0);
+        when(mensagemService.exportarMensagens(any())).thenAnswer(i -> {
+            Consumer<Mensagem> destino = i.getArgument(0);
+            destino.accept(importada);
+            return 1L;
+        });
+
+        indiceMensagens.reconstruirAoIniciar();
+        verify(mensagemService, never()).exportarMensagens(any());
+
+        assertThat(reconstrucoes).hasSize(1);
+        reconstrucoes.get(0).run();
+        indiceMensagens.atualizarLeitor();
+        assertThat(indiceMensagens.buscar("importada", 10)).containsExactly(importada.getId());
+    }
+
+    private void indexar(Mensagem... mensagens) throws Exception {
+        List.of(mensagens).forEach(m -> indiceMensagens.onMensagemEvento(MensagemEvento.criada(m)));
+        indiceMensagens.atualizarLeitor();
+    }
+
+    private static Mensagem mensagem(String usuario, String conteudo, int diasAtras) {
+        return gerarMensagemCompleta().toBuilder()
+                .usuario(usuario)
+                .conteudo(conteudo)
+                .dataCriacao(LocalDateTime.now().minusDays(diasAtras))
+                .build();
+    }
+}
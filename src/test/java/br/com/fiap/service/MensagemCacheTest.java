@@ -0,0 +1,154 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.model.Mensagem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MensagemCacheTest extends MensagemHelper {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MensagemCache mensagemCache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        mensagemCache = new MensagemCache(2, Duration.ofMinutes(1), Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void devePermitirObterMensagem_SemConsultarNovamenteOBanco() {
+        var mensagem = gerarMensagemCompleta();
+        var consultas = new AtomicInteger();
+
+        mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas));
+        var mensagemObtida = mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas));
+
+        assertThat(mensagemObtida).contains(mensagem);
+        assertThat(consultas).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "mensagens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRetornarCopia_ParaNaoAlterarEntradaDoCache() {
+        var mensagem = gerarMensagemCompleta();
+        var consultas = new AtomicInteger();
+        mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas));
+
+        mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas))
+                .ifPresent(m -> m.setConteudo("alterado"));
+
+        assertThat(mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas)))
+                .get()
+                .extracting(Mensagem::getConteudo)
+                .isEqualTo(mensagem.getConteudo());
+    }
+
+    @Test
+    void deveArmazenarIdsInexistentes() {
+        var id = UUID.randomUUID();
+        var consultas = new AtomicInteger();
+        Function<UUID, Optional<Mensagem>> carregar = i -> {
+            consultas.incrementAndGet();
+            return Optional.empty();
+        };
+
+        mensagemCache.obter(id, carregar);
+        var mensagemObtida = mensagemCache.obter(id, carregar);
+
+        assertThat(mensagemObtida).isEmpty();
+        assertThat(consultas).hasValue(1);
+    }
+
+    @Test
+    void deveInvalidarMensagem_QuandoReceberEvento() {
+        var mensagem = gerarMensagemCompleta();
+        var consultas = new AtomicInteger();
+        mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas));
+
+        mensagemCache.onMensagemEvento(MensagemEvento.atualizada(mensagem));
+        mensagemCache.obter(mensagem.getId(), carregar(mensagem, consultas));
+
+        assertThat(consultas).hasValue(2);
+    }
+
+    @Test
+    void naoDeveArmazenarLeitura_IniciadaAntesDaInvalidacao() throws Exception {
+        var mensagem = gerarMensagemCompleta();
+        var atualizada = mensagem.toBuilder().conteudo("atualizado").build();
+        var consultando = new CountDownLatch(1);
+        var invalidada = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var leitura = executor.submit(() -> mensagemCache.obter(mensagem.getId(), id -> {
+                consultando.countDown();
+                await(invalidada);
+                return Optional.of(mensagem);
+            }));
+            await(consultando);
+            mensagemCache.onMensagemEvento(MensagemEvento.atualizada(atualizada));
+            invalidada.countDown();
+
+            assertThat(leitura.get(5, TimeUnit.SECONDS)).contains(mensagem);
+            assertThat(mensagemCache.obter(mensagem.getId(), id -> Optional.of(atualizada)))
+                    .get()
+                    .extracting(Mensagem::getConteudo)
+                    .isEqualTo("atualizado");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void naoDeveArmazenarIdInexistente_QuandoInvalidadoDuranteAConsulta() throws Exception {
+        var mensagem = gerarMensagemCompleta();
+        var consultando = new CountDownLatch(1);
+        var invalidada = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var leitura = executor.submit(() -> mensagemCache.obter(mensagem.getId(), id -> {
+                consultando.countDown();
+                await(invalidada);
+                return Optional.<Mensagem>empty();
+            }));
+            await(consultando);
+            mensagemCache.onMensagemEvento(MensagemEvento.criada(mensagem));
+            invalidada.countDown();
+
+            assertThat(leitura.get(5, TimeUnit.SECONDS)).isEmpty();
+            assertThat(mensagemCache.obter(mensagem.getId(), id -> Optional.of(mensagem))).contains(mensagem);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Function<UUID, Optional<Mensagem>> carregar(Mensagem mensagem, AtomicInteger consultas) {
+        return id -> {
+            consultas.incrementAndGet();
+            return Optional.of(mensagem);
+        };
+    }
+}
@@ -1,20 +1,30 @@
 package br.com.fiap.service;
 
+import br.com.fiap.exception.VersaoConflitanteException;
 import br.com.fiap.helper.MensagemHelper;
 import br.com.fiap.model.Mensagem;
 import br.com.fiap.repository.MensagemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase
 @Transactional
 @Sql(scripts = {"/db_load.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -27,6 +37,20 @@ public class MensagemServiceIT extends MensagemHelper{
     @Autowired
     private MensagemService mensagemService;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
     @Test
     void devePermitirRegistrarMensagem() {
         // Arrange
@@ -72,4 +96,112 @@ public class MensagemServiceIT extends MensagemHelper{
         // Assert
         assertThat(mensagemRemovida).isTrue();
     }
+
+    @Test
+    void deveExecutarApenasUmInsert_QuandoRegistrarMensagem() {
+        // Arrange
+        var mensagem = gerarMensagem();
+        // Act
+        mensagemService.registrarMensagem(mensagem);
+        entityManager.flush();
+        // Assert
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deveAgruparInserts_QuandoRegistrarMensagensEmLote() {
+        // Arrange
+        var mensagens = IntStream.range(0, 10).mapToObj(i -> gerarMensagem()).toList();
+        // Act
+        mensagemService.registrarMensagens(mensagens);
+        entityManager.flush();
+        // Assert
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(10);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deveExecutarApenasUmComando_QuandoAtualizarMensagem() {
+        // Arrange
+        var id = UUID.fromString("5f789b39-4295-42c1-a65b-cfca5b987db2");
+        var mensagem = gerarMensagem();
+        mensagem.setId(id);
+        mensagem.setConteudo("conteúdo editado");
+        // Act
+        var mensagemAtualizada = mensagemService.atualizarMensagem(id, mensagem, 0L);
+        entityManager.flush();
+        // Assert
+        assertThat(mensagemAtualizada.getConteudo()).isEqualTo("conteúdo editado");
+        assertThat(mensagemAtualizada.getUsuario()).isEqualTo("Jose");
+        assertThat(mensagemAtualizada.getVersao()).isEqualTo(1L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deveManterGostei_QuandoAtualizarMensagemAposGostei() {
+        // Arrange
+        var id = UUID.fromString("5f789b39-4295-42c1-a65b-cfca5b987db2");
+        var mensagem = mensagemService.obterMensagem(id).toBuilder().build();
+        mensagemService.gostarMensagem(id, "Maria");
+        mensagem.setConteudo("conteúdo editado");
+        // Act
+        var mensagemAtualizada = mensagemService.atualizarMensagem(id, mensagem, mensagem.getVersao());
+        // Assert
+        assertThat(mensagemAtualizada.getGostei()).isEqualTo(1);
+        assertThat(mensagemAtualizada.getVersao()).isEqualTo(mensagem.getVersao() + 1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAtualizarMensagemEmVersaoAntiga() {
+        // Arrange
+        var id = UUID.fromString("5f789b39-4295-42c1-a65b-cfca5b987db2");
+        var mensagem = gerarMensagem();
+        mensagem.setId(id);
+        mensagemService.atualizarMensagem(id, mensagem, 0L);
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.atualizarMensagem(id, mensagem, 0L))
+                .isInstanceOf(VersaoConflitanteException.class);
+    }
+
+    @Test
+    void deveListarResumos_SemCarregarEntidades() {
+        // Act
+        var pagina = mensagemRepository.obterResumos(PageRequest.of(0, 2));
+        // Assert
+        assertThat(pagina.getContent()).hasSize(2);
+        assertThat(pagina.getTotalElements()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deveExecutarApenasUmComando_QuandoRemoverMensagem() {
+        // Arrange
+        var id = UUID.fromString("65b1bbee-c784-4457-be6d-d00b0be5c9e0");
+        mensagemService.gostarMensagem(id, "Jose");
+        statistics.clear();
+        // Act
+        mensagemService.removerMensagem(id);
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(mensagemRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void deveExecutarApenasUmComando_QuandoRemoverMensagensEmLote() {
+        // Arrange
+        var ids = List.of(
+                UUID.fromString("5f789b39-4295-42c1-a65b-cfca5b987db2"),
+                UUID.fromString("65b1bbee-c784-4457-be6d-d00b0be5c9e0"),
+                UUID.randomUUID());
+        // Act
+        var removidas = mensagemService.removerMensagens(ids);
+        // Assert
+        assertThat(removidas).containsExactlyInAnyOrderElementsOf(ids.subList(0, 2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(mensagemRepository.count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,75 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.repository.MensagemReativoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MensagemServiceReativoTest extends MensagemHelper {
+
+    @Mock
+    private MensagemReativoRepository mensagemRepository;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private MensagemServiceReativo mensagemService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(i -> i.getArgument(0));
+        mensagemService = new MensagemServiceReativoImp(mensagemRepository, transactionalOperator, eventPublisher);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirAlterarMensagem_RetornandoVersaoGravada() {
+        var mensagem = gerarMensagemCompleta().toBuilder().versao(3L).build();
+        var gravada = mensagem.toBuilder().conteudo("alterado").versao(5L).build();
+        when(mensagemRepository.buscar(mensagem.getId()))
+                .thenReturn(Mono.just(mensagem.toBuilder().build()), Mono.just(gravada));
+        when(mensagemRepository.atualizarConteudo(any(Mensagem.class))).thenReturn(Mono.just(1L));
+
+        var atualizada = mensagemService.atualizarMensagem(
+                mensagem.getId(), mensagem.toBuilder().conteudo("alterado").build()).block();
+
+        assertThat(atualizada).isEqualTo(gravada);
+        assertThat(atualizada.getVersao()).isEqualTo(5L);
+        verify(eventPublisher).publishEvent(any(MensagemEvento.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoMensagemRemovidaAntesDaAlteracao() {
+        var mensagem = gerarMensagemCompleta();
+        when(mensagemRepository.buscar(mensagem.getId())).thenReturn(Mono.just(mensagem.toBuilder().build()));
+        when(mensagemRepository.atualizarConteudo(any(Mensagem.class))).thenReturn(Mono.just(0L));
+
+        assertThatThrownBy(() -> mensagemService.atualizarMensagem(mensagem.getId(), mensagem).block())
+                .isInstanceOf(MensagemNotFoundException.class)
+                .hasMessage("mensagem não encontrada");
+        verify(eventPublisher, never()).publishEvent(any(MensagemEvento.class));
+    }
+}
@@ -1,27 +1,46 @@
 package br.com.fiap.service;
 
+import br.com.fiap.dto.MensagemResumo;
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.exception.GosteiDuplicadoException;
 import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.exception.VersaoConflitanteException;
 import br.com.fiap.helper.MensagemHelper;
 import br.com.fiap.model.Mensagem;
 import br.com.fiap.repository.MensagemRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -32,6 +51,14 @@ public class MensagemServiceTest extends  MensagemHelper {
 
     @Mock
     private MensagemRepository mensagemRepository;
+    @Mock
+    private ContadorGostei contadorGostei;
+    @Mock
+    private TimelineCache timelineCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EntityManager entityManager;
     private MensagemService mensagemService;
 
     AutoCloseable mock;
@@ -39,7 +66,10 @@ public class MensagemServiceTest extends  MensagemHelper {
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        mensagemService = new MensagemServiceImp(mensagemRepository);
+        mensagemService = new MensagemServiceImp(mensagemRepository, contadorGostei,
+                new RemocaoFisica(mensagemRepository),
+                new MensagemCache(100, Duration.ofMinutes(1), Duration.ofSeconds(5), new SimpleMeterRegistry()),
+                timelineCache, eventPublisher, entityManager);
     }
 
     @AfterEach
@@ -65,9 +95,30 @@ public class MensagemServiceTest extends  MensagemHelper {
                     .isEqualTo(mensagem.getUsuario());
             assertThat(mensagemRegistrada.getId())
                     .isNotNull();
+            assertThat(mensagemRegistrada.getId().version())
+                    .isEqualTo(7);
             assertThat(mensagemRegistrada.getConteudo())
                     .isEqualTo(mensagem.getConteudo());
             verify(mensagemRepository, times(1)).save(mensagem);
+            verify(eventPublisher, times(1)).publishEvent(MensagemEvento.criada(mensagemRegistrada));
+        }
+    }
+
+    @Nested
+    class RegistrarMensagens {
+
+        @Test
+        void devePermitirRegistrarMensagensEmLote() {
+            var mensagens = List.of(gerarMensagem(), gerarMensagem());
+            when(mensagemRepository.saveAll(mensagens)).thenReturn(mensagens);
+
+            var mensagensRegistradas = mensagemService.registrarMensagens(mensagens);
+
+            assertThat(mensagensRegistradas)
+                    .hasSize(2)
+                    .allSatisfy(mensagem -> assertThat(mensagem.getId()).isNotNull());
+            verify(mensagemRepository, times(1)).saveAll(mensagens);
+            verify(eventPublisher, times(2)).publishEvent(any(MensagemEvento.class));
         }
     }
 
@@ -109,6 +160,46 @@ public class MensagemServiceTest extends  MensagemHelper {
                     .hasMessage("mensagem não encontrada");
             verify(mensagemRepository, times(1)).findById(id);
         }
+
+        @Test
+        void devePermitirObterMensagem_DoCache() {
+            var mensagem = gerarMensagemCompleta();
+            var id = mensagem.getId();
+            when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
+
+            mensagemService.obterMensagem(id);
+            var mensagemObtida = mensagemService.obterMensagem(id);
+
+            assertThat(mensagemObtida).isEqualTo(mensagem);
+            verify(mensagemRepository, times(1)).findById(id);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExistenteEmCache() {
+            var id = UUID.randomUUID();
+            when(mensagemRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> mensagemService.obterMensagem(id))
+                    .isInstanceOf(MensagemNotFoundException.class);
+            assertThatThrownBy(() -> mensagemService.obterMensagem(id))
+                    .isInstanceOf(MensagemNotFoundException.class);
+            verify(mensagemRepository, times(1)).findById(id);
+        }
+
+        @Test
+        void devePermitirObterMensagem_SomandoGosteiPendentes() {
+            var mensagem = gerarMensagemCompleta();
+            mensagem.setGostei(3);
+            var id = mensagem.getId();
+            when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
+            when(contadorGostei.pendentes(id)).thenReturn(2L);
+
+            var mensagemObtida = mensagemService.obterMensagem(id);
+
+            assertThat(mensagemObtida.getGostei()).isEqualTo(5);
+            assertThat(mensagem.getGostei()).isEqualTo(3);
+        }
     }
 
     @Nested
@@ -116,17 +207,12 @@ public class MensagemServiceTest extends  MensagemHelper {
 
         @Test
         void devePermirirAtualizarMensagem() {
-            var id = UUID.randomUUID();
-            var mensagemAntiga = gerarMensagem();
-            mensagemAntiga.setId(id);
-            var mensagemNova = mensagemAntiga;
+            var mensagemNova = gerarMensagemCompleta();
+            var id = mensagemNova.getId();
             mensagemNova.setConteudo("abcd");
-
-            when(mensagemRepository.findById(any(UUID.class)))
-                    .thenReturn(Optional.of(mensagemAntiga));
-
-            when(mensagemRepository.save(any(Mensagem.class)))
-                    .thenAnswer(i -> i.getArgument(0));
+            var mensagemAtualizada = mensagemNova.toBuilder().versao(1L).build();
+            when(mensagemRepository.atualizarConteudo(eq(id), eq("abcd"), any(LocalDateTime.class), isNull()))
+                    .thenReturn(Optional.of(mensagemAtualizada));
 
             var mensagemObtida = mensagemService
                     .atualizarMensagem(id, mensagemNova);
@@ -140,7 +226,52 @@ public class MensagemServiceTest extends  MensagemHelper {
                     .isEqualTo(mensagemNova.getUsuario());
             assertThat(mensagemObtida.getConteudo())
                     .isEqualTo(mensagemNova.getConteudo());
-            verify(mensagemRepository, times(1)).save(any(Mensagem.class));
+            assertThat(mensagemObtida.getVersao())
+                    .isEqualTo(1L);
+            verify(mensagemRepository, never()).findById(any(UUID.class));
+            verify(mensagemRepository, never()).save(any(Mensagem.class));
+            verify(eventPublisher, times(1)).publishEvent(MensagemEvento.atualizada(mensagemAtualizada));
+        }
+
+        @Test
+        void devePermitirAtualizarMensagem_NaVersaoEsperada() {
+            var mensagemNova = gerarMensagemCompleta();
+            var id = mensagemNova.getId();
+            when(mensagemRepository.atualizarConteudo(eq(id), anyString(), any(LocalDateTime.class), eq(3L)))
+                    .thenReturn(Optional.of(mensagemNova.toBuilder().versao(4L).build()));
+
+            var mensagemObtida = mensagemService.atualizarMensagem(id, mensagemNova, 3L);
+
+            assertThat(mensagemObtida.getVersao()).isEqualTo(4L);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAtualizarMensagem_VersaoNaoCoincide() {
+            var mensagemNova = gerarMensagemCompleta();
+            var id = mensagemNova.getId();
+            when(mensagemRepository.atualizarConteudo(eq(id), anyString(), any(LocalDateTime.class), eq(3L)))
+                    .thenReturn(Optional.empty());
+            when(mensagemRepository.existsById(id)).thenReturn(true);
+
+            assertThatThrownBy(
+                    () -> mensagemService.atualizarMensagem(id, mensagemNova, 3L))
+                    .isInstanceOf(VersaoConflitanteException.class)
+                    .hasMessage("mensagem alterada por outra requisição");
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAtualizarMensagem_NaoEncontrada() {
+            var mensagemNova = gerarMensagemCompleta();
+            var id = mensagemNova.getId();
+            when(mensagemRepository.atualizarConteudo(eq(id), anyString(), any(LocalDateTime.class), isNull()))
+                    .thenReturn(Optional.empty());
+            when(mensagemRepository.existsById(id)).thenReturn(false);
+
+            assertThatThrownBy(
+                    () -> mensagemService.atualizarMensagem(id, mensagemNova))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("mensagem não encontrada");
         }
 
         @Test
@@ -154,8 +285,9 @@ public class MensagemServiceTest extends  MensagemHelper {
             assertThatThrownBy(
                     () -> mensagemService.atualizarMensagem(id, mensagemNova))
                     .isInstanceOf(MensagemNotFoundException.class)
-                    .hasMessage("mensagem não encontrada");
-            verify(mensagemRepository, never()).save(any(Mensagem.class));
+                    .hasMessage("mensagem não apresenta o ID correto");
+            verify(mensagemRepository, never())
+                    .atualizarConteudo(any(UUID.class), any(), any(LocalDateTime.class), any());
         }
 
     }
@@ -166,60 +298,274 @@ public class MensagemServiceTest extends  MensagemHelper {
         @Test
         void devePermitirRemoverMensagem() {
             var id = UUID.fromString("51fa607a-1e61-11ee-be56-0242ac120002");
-            var mensagem = gerarMensagem();
-            mensagem.setId(id);
-            when(mensagemRepository.findById(id))
-                    .thenReturn(Optional.of(mensagem));
-            doNothing()
-                    .when(mensagemRepository).deleteById(id);
+            when(mensagemRepository.removerMensagem(id))
+                    .thenReturn(1);
 
             var resultado = mensagemService.removerMensagem(id);
 
             assertThat(resultado).isTrue();
-            verify(mensagemRepository, times(1)).findById(any(UUID.class));
-            verify(mensagemRepository, times(1)).delete(any(Mensagem.class));
+            verify(mensagemRepository, never()).findById(any(UUID.class));
+            verify(mensagemRepository, never()).delete(any(Mensagem.class));
+            verify(mensagemRepository, times(1)).removerMensagem(id);
+            verify(eventPublisher, times(1)).publishEvent(MensagemEvento.removida(id));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverMensagem_IdNaoExistente() {
+            var id = UUID.randomUUID();
+            when(mensagemRepository.removerMensagem(id))
+                    .thenReturn(0);
+
+            assertThatThrownBy(() -> mensagemService.removerMensagem(id))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("mensagem não encontrada");
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        void devePermitirRemoverMensagensEmLote() {
+            var removida = UUID.randomUUID();
+            var inexistente = UUID.randomUUID();
+            when(mensagemRepository.removerMensagens(List.of(removida, inexistente)))
+                    .thenReturn(List.of(removida.toString()));
+
+            var resultado = mensagemService.removerMensagens(List.of(removida, inexistente));
+
+            assertThat(resultado).containsExactly(removida);
+            verify(eventPublisher, times(1)).publishEvent(MensagemEvento.removida(removida));
+            verify(eventPublisher, never()).publishEvent(MensagemEvento.removida(inexistente));
         }
 
     }
 
 
+    @Nested
+    class GostarMensagem {
+
+        @Test
+        void devePermitirGostarMensagem() {
+            var mensagem = gerarMensagemCompleta();
+            mensagem.setGostei(1);
+            var id = mensagem.getId();
+            when(mensagemRepository.registrarGostei(id, "Maria")).thenReturn(1);
+            when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
+
+            var mensagemObtida = mensagemService.gostarMensagem(id, "Maria");
+
+            assertThat(mensagemObtida.getGostei()).isEqualTo(1);
+            verify(mensagemRepository, times(1)).registrarGostei(id, "Maria");
+            verify(contadorGostei, times(1)).incrementar(id);
+            verify(mensagemRepository, never()).save(any(Mensagem.class));
+            verify(eventPublisher, times(1)).publishEvent(MensagemEvento.gostei(mensagemObtida));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoGostarMensagem_IdNaoExistente() {
+            var id = UUID.randomUUID();
+            when(mensagemRepository.registrarGostei(any(UUID.class), anyString())).thenReturn(0);
+
+            assertThatThrownBy(() -> mensagemService.gostarMensagem(id, "Maria"))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("mensagem não encontrada");
+            verify(contadorGostei, never()).incrementar(any(UUID.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoUsuarioJaGostouDaMensagem() {
+            var id = UUID.randomUUID();
+            when(mensagemRepository.registrarGostei(any(UUID.class), anyString()))
+                    .thenThrow(new DataIntegrityViolationException("chave duplicada"));
+
+            assertThatThrownBy(() -> mensagemService.gostarMensagem(id, "Maria"))
+                    .isInstanceOf(GosteiDuplicadoException.class)
+                    .hasMessage("usuário já gostou da mensagem");
+            verify(contadorGostei, never()).incrementar(any(UUID.class));
+        }
+    }
+
     @Nested
     class ObterMensagens {
 
         @Test
         void devePermitirObterMensagens() {
-            Page<Mensagem> page = new PageImpl<>(Arrays.asList(
-                    gerarMensagem(),
-                    gerarMensagem()
+            Page<MensagemResumo> page = new PageImpl<>(Arrays.asList(
+                    MensagemResumo.de(gerarMensagemCompleta()),
+                    MensagemResumo.de(gerarMensagemCompleta())
             ));
 
-            when(mensagemRepository.obterMensagens(any(Pageable.class)))
+            when(mensagemRepository.obterResumos(any(Pageable.class)))
                     .thenReturn(page);
 
-            Page<Mensagem> mensagens = mensagemService.obterMensagens(Pageable.unpaged());
+            Page<MensagemResumo> mensagens = mensagemService.obterMensagens(Pageable.unpaged());
 
             assertThat(mensagens).hasSize(2);
             assertThat(mensagens.getContent())
                     .asList()
                     .allSatisfy(mensagem -> {
                         assertThat(mensagem).isNotNull();
-                        assertThat(mensagem).isInstanceOf(Mensagem.class);
+                        assertThat(mensagem).isInstanceOf(MensagemResumo.class);
                     });
-            verify(mensagemRepository, times(1)).obterMensagens(any(Pageable.class));
+            verify(mensagemRepository, times(1)).obterResumos(any(Pageable.class));
+            verify(mensagemRepository, never()).obterMensagens(any(Pageable.class));
         }
 
         @Test
         void devePermitirObterMensagens_QuandoNaoExisteRegistro() {
-            Page<Mensagem> page = new PageImpl<>(Collections.emptyList());
+            Page<MensagemResumo> page = new PageImpl<>(Collections.emptyList());
 
-            when(mensagemRepository.obterMensagens(any(Pageable.class)))
+            when(mensagemRepository.obterResumos(any(Pageable.class)))
                     .thenReturn(page);
 
-            Page<Mensagem> mensagens = mensagemService.obterMensagens(Pageable.unpaged());
+            Page<MensagemResumo> mensagens = mensagemService.obterMensagens(Pageable.unpaged());
 
             assertThat(mensagens).isEmpty();
-            verify(mensagemRepository, times(1)).obterMensagens(any(Pageable.class));
+            verify(mensagemRepository, times(1)).obterResumos(any(Pageable.class));
+        }
+
+        @Test
+        void devePermitirObterMensagens_DaTimelineEmMemoria() {
+            var mensagem = gerarMensagemCompleta();
+            Page<Mensagem> page = new PageImpl<>(List.of(mensagem), PageRequest.of(0, 10), 1);
+            when(timelineCache.obterPagina(any(Pageable.class)))
+                    .thenReturn(Optional.of(page));
+
+            var mensagens = mensagemService.obterMensagens(PageRequest.of(0, 10));
+
+            assertThat(mensagens.getContent()).containsExactly(MensagemResumo.de(mensagem));
+            assertThat(mensagens.getTotalElements()).isEqualTo(1);
+            verify(mensagemRepository, never()).obterResumos(any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class ObterMensagensPorCursor {
+
+        @Test
+        void devePermitirObterPrimeiraPagina_ComProximoCursor() {
+            var mensagens = Arrays.asList(
+                    gerarMensagemCompleta(),
+                    gerarMensagemCompleta(),
+                    gerarMensagemCompleta());
+            when(mensagemRepository.obterMensagensIniciais(any(Pageable.class)))
+                    .thenReturn(mensagens);
+
+            var pagina = mensagemService.obterMensagens("", 2);
+
+            assertThat(pagina.getContent()).hasSize(2);
+            assertThat(pagina.getNext()).isNotNull();
+            var cursor = MensagemCursor.decodificar(pagina.getNext());
+            assertThat(cursor.id()).isEqualTo(mensagens.get(1).getId());
+            assertThat(cursor.dataCriacao()).isEqualTo(mensagens.get(1).getDataCriacao());
+            verify(mensagemRepository, never()).obterMensagens(any(Pageable.class));
+        }
+
+        @Test
+        void devePermitirObterPaginaSeguinte_APartirDoCursor() {
+            var ultima = gerarMensagemCompleta();
+            var cursor = MensagemCursor.de(ultima).codificar();
+            when(mensagemRepository.obterMensagensApos(
+                    any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                    .thenReturn(List.of(gerarMensagemCompleta()));
+
+            var pagina = mensagemService.obterMensagens(cursor, 2);
+
+            assertThat(pagina.getContent()).hasSize(1);
+            assertThat(pagina.getNext()).isNull();
+            verify(mensagemRepository, times(1)).obterMensagensApos(
+                    eq(ultima.getDataCriacao()), eq(ultima.getId()), any(Pageable.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCursorInvalido() {
+            assertThatThrownBy(() -> mensagemService.obterMensagens("abc", 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(mensagemRepository, never()).obterMensagensApos(
+                    any(LocalDateTime.class), any(UUID.class), any(Pageable.class));
         }
     }
 
+    @Nested
+    class ObterMensagensDoUsuario {
+
+        @Test
+        void devePermitirObterPrimeiraPagina_DoUsuario() {
+            var mensagens = List.of(gerarMensagemCompleta(), gerarMensagemCompleta());
+            when(mensagemRepository.obterMensagensDoUsuario(eq("Jose"), any(Pageable.class)))
+                    .thenReturn(mensagens);
+
+            var pagina = mensagemService.obterMensagensDoUsuario("Jose", "", 1);
+
+            assertThat(pagina.getContent()).containsExactly(mensagens.get(0));
+            assertThat(MensagemCursor.decodificar(pagina.getNext()).id()).isEqualTo(mensagens.get(0).getId());
+            verify(timelineCache, never()).obterRecentes(any(Integer.class));
+        }
+
+        @Test
+        void devePermitirObterPaginaSeguinte_DoUsuario() {
+            var ultima = gerarMensagemCompleta();
+            when(mensagemRepository.obterMensagensDoUsuarioApos(
+                    eq("Jose"), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            var pagina = mensagemService.obterMensagensDoUsuario("Jose", MensagemCursor.de(ultima).codificar(), 10);
+
+            assertThat(pagina.getContent()).isEmpty();
+            assertThat(pagina.getNext()).isNull();
+            verify(mensagemRepository, times(1)).obterMensagensDoUsuarioApos(
+                    eq("Jose"), eq(ultima.getDataCriacao()), eq(ultima.getId()), any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class ObterMensagensPorIds {
+
+        @Test
+        void deveManterOrdemDosIds_OmitindoInexistentes() {
+            var primeira = gerarMensagemCompleta();
+            var segunda = gerarMensagemCompleta();
+            var removida = UUID.randomUUID();
+            when(mensagemRepository.findAllById(any()))
+                    .thenReturn(List.of(primeira, segunda));
+
+            var mensagens = mensagemService.obterMensagens(List.of(segunda.getId(), removida, primeira.getId()));
+
+            assertThat(mensagens).containsExactly(segunda, primeira);
+        }
+
+        @Test
+        void naoDeveConsultarRepositorio_QuandoNaoHouverIds() {
+            assertThat(mensagemService.obterMensagens(List.<UUID>of())).isEmpty();
+            verify(mensagemRepository, never()).findAllById(any());
+        }
+    }
+
+    @Nested
+    class ExportarMensagens {
+
+        @Test
+        void devePermitirExportarMensagens_LiberandoCadaEntidade() {
+            var mensagens = List.of(gerarMensagemCompleta(), gerarMensagemCompleta());
+            when(mensagemRepository.exportarMensagens()).thenReturn(mensagens.stream());
+            var exportadas = new ArrayList<Mensagem>();
+
+            var quantidade = mensagemService.exportarMensagens(exportadas::add);
+
+            assertThat(quantidade).isEqualTo(2);
+            assertThat(exportadas).containsExactlyElementsOf(mensagens);
+            verify(entityManager, times(1)).detach(mensagens.get(0));
+            verify(entityManager, times(1)).detach(mensagens.get(1));
+        }
+
+        @Test
+        void deveFecharStream_QuandoDestinoFalhar() {
+            var fechado = new AtomicBoolean();
+            when(mensagemRepository.exportarMensagens())
+                    .thenReturn(Stream.of(gerarMensagemCompleta()).onClose(() -> fechado.set(true)));
+
+            assertThatThrownBy(() -> mensagemService.exportarMensagens(m -> {
+                throw new IllegalStateException("conexão encerrada");
+            })).isInstanceOf(IllegalStateException.class);
+            assertThat(fechado).isTrue();
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package br.com.fiap.service;
+
+import br.com.fiap.exception.MensagemNotFoundException;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.repository.MensagemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "mensagens.remocao.logica.enabled=true",
+        "mensagens.remocao.purga.tamanho-bloco=2",
+        "mensagens.remocao.purga.pausa=3600000",
+        "mensagens.remocao.purga.inicio=00:00",
+        "mensagens.remocao.purga.fim=00:00"
+})
+@AutoConfigureTestDatabase
+@Sql(scripts = {"/db_load.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/db_clean.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PurgadorMensagensIT extends MensagemHelper {
+
+    private static final UUID JOSE = UUID.fromString("5f789b39-4295-42c1-a65b-cfca5b987db2");
+    private static final UUID MARIA = UUID.fromString("65b1bbee-c784-4457-be6d-d00b0be5c9e0");
+    private static final UUID CARLOTA = UUID.fromString("592ac344-9f12-40cd-8ed9-1fde6ad9006e");
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private PurgadorMensagens purgadorMensagens;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void deveOcultarMensagemRemovida_AntesDaPurga() {
+        mensagemService.gostarMensagem(JOSE, "Maria");
+
+        mensagemService.removerMensagem(JOSE);
+
+        assertThat(linhas()).isEqualTo(3);
+        assertThat(mensagemRepository.findById(JOSE)).isEmpty();
+        assertThat(mensagemService.obterMensagens(PageRequest.of(0, 10)).getContent())
+                .extracting("id")
+                .containsExactlyInAnyOrder(MARIA, CARLOTA);
+        assertThatThrownBy(() -> mensagemService.obterMensagem(JOSE))
+                .isInstanceOf(MensagemNotFoundException.class);
+        assertThatThrownBy(() -> mensagemService.gostarMensagem(JOSE, "Carlota"))
+                .isInstanceOf(MensagemNotFoundException.class);
+        var mensagem = gerarMensagem();
+        mensagem.setId(JOSE);
+        assertThatThrownBy(() -> mensagemService.atualizarMensagem(JOSE, mensagem))
+                .isInstanceOf(MensagemNotFoundException.class);
+        assertThatThrownBy(() -> mensagemService.removerMensagem(JOSE))
+                .isInstanceOf(MensagemNotFoundException.class);
+    }
+
+    @Test
+    void deveApagarMensagensRemovidas_EmBlocos() {
+        mensagemService.removerMensagem(JOSE);
+        var removidas = mensagemService.removerMensagens(List.of(JOSE, MARIA, CARLOTA));
+        assertThat(removidas).containsExactlyInAnyOrder(MARIA, CARLOTA);
+
+        assertThat(purgadorMensagens.purgar()).isEqualTo(2);
+        assertThat(linhas()).isEqualTo(1);
+        assertThat(meterRegistry.get("mensagens.remocao.pendentes").gauge().value()).isEqualTo(1);
+
+        assertThat(purgadorMensagens.purgar()).isEqualTo(1);
+        assertThat(purgadorMensagens.purgar()).isZero();
+        assertThat(linhas()).isZero();
+        assertThat(meterRegistry.get("mensagens.remocao.pendentes").gauge().value()).isZero();
+        assertThat(meterRegistry.get("mensagens.remocao.purgadas").counter().count()).isEqualTo(3);
+    }
+
+    private int linhas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mensagem", Integer.class);
+    }
+}
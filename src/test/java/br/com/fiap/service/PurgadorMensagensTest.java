@@ -0,0 +1,100 @@
+package br.com.fiap.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class PurgadorMensagensTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveApagarUmBloco_EPublicarAtraso() {
+        var purgador = new PurgadorMensagens(jdbcTemplate, meterRegistry, 50, "00:00", "00:00");
+        when(jdbcTemplate.update(anyString(), eq(50))).thenReturn(50);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(120L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(LocalDateTime.class)))
+                .thenReturn(LocalDateTime.now().minusMinutes(10));
+
+        assertThat(purgador.purgar()).isEqualTo(50);
+
+        assertThat(meterRegistry.get("mensagens.remocao.purgadas").counter().count()).isEqualTo(50);
+        assertThat(meterRegistry.get("mensagens.remocao.pendentes").gauge().value()).isEqualTo(120);
+        assertThat(meterRegistry.get("mensagens.remocao.atraso").timeGauge().value(TimeUnit.MINUTES))
+                .isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void deveInformarAtrasoZero_QuandoNaoHaPendentes() {
+        var purgador = new PurgadorMensagens(jdbcTemplate, meterRegistry, 50, "00:00", "00:00");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+
+        assertThat(purgador.purgar()).isZero();
+
+        assertThat(meterRegistry.get("mensagens.remocao.atraso").timeGauge().value(TimeUnit.SECONDS)).isZero();
+    }
+
+    @Test
+    void deveContinuar_QuandoBancoFalha() {
+        var purgador = new PurgadorMensagens(jdbcTemplate, meterRegistry, 50, "00:00", "00:00");
+        when(jdbcTemplate.update(anyString(), eq(50))).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(purgador.purgar()).isZero();
+        assertThat(meterRegistry.get("mensagens.remocao.purgadas").counter().count()).isZero();
+    }
+
+    @Test
+    void deveRespeitarJanela_InclusiveAtravessandoMeiaNoite() {
+        var duas = LocalTime.of(2, 0);
+        var seis = LocalTime.of(6, 0);
+        var vinteDuas = LocalTime.of(22, 0);
+
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(2, 0), duas, seis)).isTrue();
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(5, 59), duas, seis)).isTrue();
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(6, 0), duas, seis)).isFalse();
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(14, 0), duas, seis)).isFalse();
+
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(23, 30), vinteDuas, seis)).isTrue();
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(1, 0), vinteDuas, seis)).isTrue();
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(12, 0), vinteDuas, seis)).isFalse();
+
+        assertThat(PurgadorMensagens.dentroDaJanela(LocalTime.of(12, 0), duas, duas)).isTrue();
+    }
+
+    @Test
+    void deveRecusarTamanhoDeBlocoInvalido() {
+        assertThatThrownBy(() -> new PurgadorMensagens(jdbcTemplate, meterRegistry, 0, "02:00", "06:00"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("tamanho de bloco inválido");
+    }
+}
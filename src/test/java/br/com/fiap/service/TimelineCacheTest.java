@@ -0,0 +1,149 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.helper.MensagemHelper;
+import br.com.fiap.model.Mensagem;
+import br.com.fiap.repository.MensagemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TimelineCacheTest extends MensagemHelper {
+
+    @Mock
+    private MensagemRepository mensagemRepository;
+    private TimelineCache timelineCache;
+    private List<Mensagem> mensagens;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        timelineCache = new TimelineCache(mensagemRepository, true, 4, Duration.ofMinutes(1), Runnable::run);
+        var agora = LocalDateTime.now();
+        mensagens = IntStream.range(0, 4)
+                .mapToObj(i -> gerarMensagemCompleta().toBuilder()
+                        .dataCriacao(agora.minusMinutes(i))
+                        .build())
+                .toList();
+        when(mensagemRepository.obterMensagens(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(mensagens, PageRequest.of(0, 4), 10));
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirObterPrimeiraPagina_DaMemoria() {
+        timelineCache.obterPagina(PageRequest.of(0, 2));
+        var pagina = timelineCache.obterPagina(PageRequest.of(1, 2));
+
+        assertThat(pagina).isPresent();
+        assertThat(pagina.get().getContent()).containsExactly(mensagens.get(2), mensagens.get(3));
+        assertThat(pagina.get().getTotalElements()).isEqualTo(10);
+        verify(mensagemRepository, times(1)).obterMensagens(any(Pageable.class));
+    }
+
+    @Test
+    void naoDeveAtenderPaginas_AlemDaJanela() {
+        assertThat(timelineCache.obterPagina(PageRequest.of(1, 3))).isEmpty();
+        assertThat(timelineCache.obterRecentes(5)).isEmpty();
+        assertThat(timelineCache.obterRecentes(4)).contains(mensagens);
+    }
+
+    @Test
+    void deveIncluirMensagemCriada_NoInicioDaJanela() {
+        timelineCache.obterRecentes(1);
+        var nova = gerarMensagemCompleta();
+
+        timelineCache.onMensagemEvento(MensagemEvento.criada(nova));
+
+        var recentes = timelineCache.obterRecentes(4).orElseThrow();
+        assertThat(recentes).hasSize(4);
+        assertThat(recentes.get(0).getId()).isEqualTo(nova.getId());
+        assertThat(recentes).doesNotContain(mensagens.get(3));
+        assertThat(timelineCache.obterPagina(PageRequest.of(0, 4)).orElseThrow().getTotalElements())
+                .isEqualTo(11);
+    }
+
+    @Test
+    void deveAtualizarGostei_NaJanela() {
+        timelineCache.obterRecentes(1);
+        var curtida = mensagens.get(1).toBuilder().gostei(7).build();
+
+        timelineCache.onMensagemEvento(MensagemEvento.gostei(curtida));
+
+        assertThat(timelineCache.obterRecentes(2).orElseThrow().get(1).getGostei()).isEqualTo(7);
+    }
+
+    @Test
+    void deveRetirarMensagemRemovida_DaJanela() {
+        timelineCache.obterRecentes(1);
+
+        timelineCache.onMensagemEvento(MensagemEvento.removida(mensagens.get(0).getId()));
+
+        assertThat(timelineCache.obterRecentes(3)).contains(mensagens.subList(1, 4));
+        assertThat(timelineCache.obterRecentes(4)).isEmpty();
+    }
+
+    @Test
+    void deveRetirarMensagemRemovida_QuandoJanelaContemTodasAsMensagens() {
+        var recargas = new ArrayList<Runnable>();
+        timelineCache = new TimelineCache(mensagemRepository, true, 100, Duration.ofMinutes(1), recargas::add);
+        when(mensagemRepository.obterMensagens(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(mensagens, PageRequest.of(0, 100), 4));
+        timelineCache.obterRecentes(1);
+
+        timelineCache.onMensagemEvento(MensagemEvento.removida(mensagens.get(1).getId()));
+
+        var pagina = timelineCache.obterPagina(PageRequest.of(0, 20)).orElseThrow();
+        assertThat(pagina.getContent()).containsExactly(mensagens.get(0), mensagens.get(2), mensagens.get(3));
+        assertThat(pagina.getTotalElements()).isEqualTo(3);
+        assertThat(recargas).isEmpty();
+    }
+
+    @Test
+    void naoDeveAtenderLeituras_QuandoDesabilitado() {
+        timelineCache = new TimelineCache(mensagemRepository, false, 4, Duration.ofMinutes(1), Runnable::run);
+
+        assertThat(timelineCache.obterPagina(PageRequest.of(0, 2))).isEmpty();
+        verify(mensagemRepository, never()).obterMensagens(any(Pageable.class));
+    }
+
+    @Test
+    void deveRecarregarJanelaEmSegundoPlano_QuandoExpirar() {
+        var recargas = new ArrayList<Runnable>();
+        timelineCache = new TimelineCache(mensagemRepository, true, 4, Duration.ZERO, recargas::add);
+
+        timelineCache.obterPagina(PageRequest.of(0, 2));
+        var pagina = timelineCache.obterPagina(PageRequest.of(0, 2));
+
+        assertThat(pagina).isPresent();
+        assertThat(recargas).hasSize(1);
+        verify(mensagemRepository, times(1)).obterMensagens(any(Pageable.class));
+
+        recargas.get(0).run();
+        verify(mensagemRepository, times(2)).obterMensagens(any(Pageable.class));
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.fiap.service;
+
+import br.com.fiap.event.MensagemEvento;
+import br.com.fiap.helper.MensagemHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimelineStreamTest extends MensagemHelper {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Runnable> pendentes;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        pendentes = new ArrayList<>();
+    }
+
+    @Test
+    void deveEnviarEventos_AosAssinantes() {
+        var timelineStream = criar(4, 10, Runnable::run);
+        var emissor = new EmissorTeste();
+        timelineStream.assinar(emissor);
+        var mensagem = gerarMensagemCompleta();
+
+        timelineStream.onMensagemEvento(MensagemEvento.criada(mensagem));
+        timelineStream.onMensagemEvento(MensagemEvento.removida(mensagem.getId()));
+        timelineStream.enviarHeartbeat();
+
+        assertThat(emissor.enviados).hasSize(4);
+        assertThat(emissor.enviados.get(1))
+                .contains("id:1", "event:criada", mensagem.getConteudo());
+        assertThat(emissor.enviados.get(2))
+                .contains("id:2", "event:removida", mensagem.getId().toString());
+        assertThat(emissor.enviados.get(3)).startsWith(":heartbeat");
+    }
+
+    @Test
+    void deveDesconectarAssinanteLento_QuandoBufferEncher() {
+        var timelineStream = criar(2, 10, pendentes::add);
+        var lento = new EmissorTeste();
+        timelineStream.assinar(lento);
+
+        timelineStream.onMensagemEvento(MensagemEvento.criada(gerarMensagemCompleta()));
+        timelineStream.onMensagemEvento(MensagemEvento.removida(UUID.randomUUID()));
+
+        assertThat(timelineStream.assinantes()).isZero();
+        assertThat(meterRegistry.get("mensagens.stream.descartados").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mensagens.stream.assinantes").gauge().value()).isZero();
+        pendentes.forEach(Runnable::run);
+        assertThat(lento.enviados).isEmpty();
+    }
+
+    @Test
+    void naoDeveAceitarAssinantes_AlemDoLimite() {
+        var timelineStream = criar(4, 1, Runnable::run);
+
+        assertThat(timelineStream.assinar(new EmissorTeste())).isPresent();
+        assertThat(timelineStream.assinar(new EmissorTeste())).isEmpty();
+        assertThat(timelineStream.assinantes()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRemoverAssinante_QuandoEnvioFalhar() {
+        var timelineStream = criar(4, 10, Runnable::run);
+        var desconectado = new EmissorTeste();
+        timelineStream.assinar(desconectado);
+        desconectado.falhar = true;
+
+        timelineStream.enviarHeartbeat();
+
+        assertThat(timelineStream.assinantes()).isZero();
+    }
+
+    @Test
+    void naoDeveAtrasarDemaisAssinantes_QuandoEnvioBloquear() throws Exception {
+        var envio = TimelineStream.criarPoolEnvio(1);
+        try {
+            var timelineStream = new TimelineStream(
+                    4, 10, Duration.ofMinutes(1), Duration.ofMillis(50), envio, meterRegistry);
+            var travado = new EmissorTeste();
+            timelineStream.assinar(travado);
+            assertThat(travado.enviou.await(5, TimeUnit.SECONDS)).isTrue();
+            travado.bloquear = new CountDownLatch(1);
+            timelineStream.enviarHeartbeat();
+            assertThat(travado.bloqueado.await(5, TimeUnit.SECONDS)).isTrue();
+
+            var rapido = new EmissorTeste();
+            timelineStream.assinar(rapido);
+            timelineStream.onMensagemEvento(MensagemEvento.criada(gerarMensagemCompleta()));
+
+            aguardar(() -> rapido.enviados.size() == 2);
+            Thread.sleep(100);
+            timelineStream.enviarHeartbeat();
+            assertThat(timelineStream.assinantes()).isEqualTo(1);
+            assertThat(meterRegistry.get("mensagens.stream.descartados").counter().count()).isEqualTo(1);
+            travado.bloquear.countDown();
+        } finally {
+            envio.shutdownNow();
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+
+    private TimelineStream criar(int buffer, int maximoAssinantes, Executor envio) {
+        return new TimelineStream(buffer, maximoAssinantes, Duration.ofMinutes(1), Duration.ofMinutes(1), envio, meterRegistry);
+    }
+
+    private static class EmissorTeste extends SseEmitter {
+
+        private final List<String> enviados = new CopyOnWriteArrayList<>();
+        private final CountDownLatch enviou = new CountDownLatch(1);
+        private final CountDownLatch bloqueado = new CountDownLatch(1);
+        private volatile CountDownLatch bloquear;
+        private boolean falhar;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (falhar) {
+                throw new IOException("conexão encerrada");
+            }
+            if (bloquear != null) {
+                bloqueado.countDown();
+                try {
+                    bloquear.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            enviados.add(builder.build().stream()
+                    .map(dado -> String.valueOf(dado.getData()))
+                    .collect(Collectors.joining()));
+            enviou.countDown();
+        }
+    }
+}